@@ -0,0 +1,126 @@
+package org.airport.bench;
+
+import org.airport.Airport;
+import org.airport.BoardOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл рейса: регистрация, прибытие, посадка, объявление посадки пассажиров и взлет.
+ * Запуск с профилировщиком памяти: {@code java -jar airport-bench/target/benchmarks.jar -prof gc}.
+ * В установившемся режиме показатель {@code gc.alloc.rate.norm} должен быть близок к 0 B/op для
+ * самого цикла и для цикла с чтением листов ожидания. Чтение табло выдает неизменяемые проекции,
+ * поэтому на каждое изменение создается новая строка изменившегося рейса и новая проекция.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LifecycleBenchmark {
+    private static final int FLIGHTS = 64;     //число номеров рейсов, используемых по кругу
+
+    @Param({"0", "50"})
+    private int parked;                 //число рейсов, постоянно стоящих на табло
+
+    private Airport airport;            //аэропорт, в котором проходят рейсы
+    private String[] flights;           //номера рейсов, созданные заранее
+    private int next;                   //номер следующего рейса в массиве
+
+    /**
+     * Подготовка аэропорта и номеров рейсов
+     */
+    @Setup
+    public void setUp() {
+        airport = new Airport(4);
+        flights = new String[FLIGHTS];
+        for (int i = 0; i < FLIGHTS; i++)
+            flights[i] = "SU" + (1000 + i);
+        for (int i = 0; i < parked; i++)
+            airport.registerFlight("P" + i, "Казань");
+    }
+
+    /**
+     * Цикл рейса без чтения табло
+     * @return Номер посадочной полосы
+     */
+    @Benchmark
+    public int lifecycle() {
+        String flight = flights[next++ & (FLIGHTS - 1)];
+        airport.registerFlight(flight, "Москва");
+        int runway = airport.arriveAtAirport(flight);
+        airport.landAtAirport(flight, runway);
+        airport.readyForBoarding(flight, "Сочи");
+        airport.takeOff(flight);
+        return runway;
+    }
+
+    /**
+     * Цикл рейса с чтением табло после каждого шага, как это делает графический интерфейс
+     * @param blackhole Приемник результатов
+     */
+    @Benchmark
+    public void lifecycleWithBoards(Blackhole blackhole) {
+        String flight = flights[next++ & (FLIGHTS - 1)];
+        airport.registerFlight(flight, "Москва");
+        readBoards(blackhole);
+        int runway = airport.arriveAtAirport(flight);
+        readBoards(blackhole);
+        airport.landAtAirport(flight, runway);
+        readBoards(blackhole);
+        airport.readyForBoarding(flight, "Сочи");
+        readBoards(blackhole);
+        airport.takeOff(flight);
+        readBoards(blackhole);
+    }
+
+    /**
+     * Цикл рейса с обращением к листам ожидания после каждого шага
+     * @param blackhole Приемник результатов
+     */
+    @Benchmark
+    public void lifecycleWithWaitingLists(Blackhole blackhole) {
+        String flight = flights[next++ & (FLIGHTS - 1)];
+        airport.registerFlight(flight, "Москва");
+        readWaitingLists(blackhole);
+        int runway = airport.arriveAtAirport(flight);
+        readWaitingLists(blackhole);
+        airport.landAtAirport(flight, runway);
+        readWaitingLists(blackhole);
+        airport.readyForBoarding(flight, "Сочи");
+        readWaitingLists(blackhole);
+        airport.takeOff(flight);
+        readWaitingLists(blackhole);
+    }
+
+    /**
+     * Чтение размеров листов ожидания прибытий и отправлений
+     * @param blackhole Приемник результатов
+     */
+    private void readWaitingLists(Blackhole blackhole) {
+        blackhole.consume(airport.getArrivals().size());
+        blackhole.consume(airport.getDepartures().size());
+    }
+
+    /**
+     * Чтение обоих табло так же, как при их выводе
+     * @param blackhole Приемник результатов
+     */
+    private void readBoards(Blackhole blackhole) {
+        blackhole.consume(airport.getArrivalsBoard(BoardOrder.FLIGHT).getRows().size());
+        blackhole.consume(airport.getDeparturesBoard(BoardOrder.FLIGHT).getRows().size());
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Логика аэропорта без графического интерфейса
+ */
+module org.airport.core {
+    exports org.airport;
+}
@@ -0,0 +1,859 @@
+package org.airport;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Класс, реализующий основную функциональность системы
+ */
+public class Airport {
+    private static final int PLANE_POOL_SIZE = 64;    //наибольшее число самолетов для повторного использования
+
+    private PlaneRegistry planes;       //зарегистрированные в аэропорту самолеты
+    private List<String> circlingQ;     //очередь самолетов на посадку
+    private Runway[] runways;           //посадочные полосы аэропорта
+    private final BoardPublisher board; //рассылка изменений табло
+    private long version;               //версия состояния, растет при каждом изменении
+    private AirportSnapshot snapshot;   //последний снятый снимок состояния
+    private ChangeLog changeLog;        //журнал изменений для контрольных точек, null - не ведется
+    private FlightArchive archive;      //архив завершенных рейсов, null - не ведется
+    private CommandRecorder recorder;   //запись команд для воспроизведения, null - не ведется
+    private long boardBuilds;           //число перестроений табло, номер отмечает самолеты текущего перестроения
+    private final Map<BoardOrder, BoardBuilder> arrivalsBoards = new EnumMap<>(BoardOrder.class);  //табло прибытий
+    private final Map<BoardOrder, BoardBuilder> departuresBoards = new EnumMap<>(BoardOrder.class); //табло отправлений
+    private final Deque<Plane> planePool = new ArrayDeque<>(PLANE_POOL_SIZE);    //взлетевшие самолеты для новых рейсов
+    private final Set<Plane> arrivals = new PlaneView(false);      //лист ожидания прибытий
+    private final Set<Plane> departures = new PlaneView(true);     //лист ожидания отправлений
+    private final RunwaySequencer sequencer = new RunwaySequencer(3, 200_000);   //порядок посадки
+
+    /**
+     * Конструктор класса Аэропорт через загрузку файла
+     * @param filenameIn Имя файла
+     * @throws IOException Ошибка при чтении файла
+     * @throws ClassNotFoundException Ошибка при разборе файла
+     */
+    public Airport (String filenameIn) throws IOException, ClassNotFoundException {
+        board = new BoardPublisher();
+        load(filenameIn);
+    }
+
+    /**
+     * Конструктор пустого класса Аэропорт
+     * @param numIn Число посадочных полос
+     * @throws AirportException Ошибка при создании базового класса логики
+     */
+    public Airport(int numIn) throws AirportException {
+        this(numIn, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор пустого класса Аэропорт с заданным исполнителем рассылки табло
+     * @param numIn Число посадочных полос
+     * @param boardExecutor Исполнитель, в котором вызываются методы подписчиков табло
+     * @throws AirportException Ошибка при создании базового класса логики
+     */
+    public Airport(int numIn, Executor boardExecutor) throws AirportException {
+        board = new BoardPublisher(boardExecutor);
+        try {
+            runways = new Runway[numIn];
+            for (int i = 0; i < numIn; i++) {
+                runways[i] = new Runway(i + 1);
+            }
+            planes = new PlaneRegistry();
+            circlingQ = new ArrayList<>();
+        }
+        catch (Exception e) {
+            throw new AirportException("Ошибка при создании аэропорта, приведшая к закрытию приложения");
+        }
+    }
+
+    /**
+     * Регистрация рейса
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @throws AirportException Повторная регистрация
+     */
+    public void registerFlight(String flightIn, String cityOfOrigin) throws AirportException{
+        registerFlight(flightIn, cityOfOrigin, WakeCategory.MEDIUM);
+    }
+
+    /**
+     * Регистрация рейса с категорией турбулентности следа
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @param wakeCategory Категория турбулентности следа
+     * @throws AirportException Повторная регистрация
+     */
+    public void registerFlight(String flightIn, String cityOfOrigin, WakeCategory wakeCategory)
+            throws AirportException {
+        registerFlight(flightIn, cityOfOrigin, wakeCategory, System.currentTimeMillis());
+    }
+
+    /**
+     * Регистрация рейса с категорией турбулентности следа в заданный момент
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @param wakeCategory Категория турбулентности следа
+     * @param now Текущее время, мс
+     * @throws AirportException Повторная регистрация
+     */
+    void registerFlight(String flightIn, String cityOfOrigin, WakeCategory wakeCategory, long now)
+            throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.REGISTER, flightIn, cityOfOrigin, wakeCategory.name(),
+                        Long.toString(now));
+            if (planes.containsKey(flightIn))
+                throw new AirportException("Рейс " + flightIn + " уже был зарегистрирован");
+            Plane plane = planePool.pollFirst();
+            if (plane == null)
+                plane = new Plane(flightIn, cityOfOrigin, wakeCategory, now);
+            else
+                plane.reset(flightIn, cityOfOrigin, wakeCategory, now);
+            planes.put(plane);
+            changed(BoardEventType.REGISTERED, plane);
+        }
+    }
+
+    /**
+     * Записывает информацию о прибытии самолета
+     * @param flightIn Номер рейса
+     * @return Номер посадочной полосы
+     * @throws AirportException Ошибка при посадке или включении в очередь
+     */
+    public int arriveAtAirport(String flightIn) throws AirportException {
+        return arriveAtAirport(flightIn, System.currentTimeMillis());
+    }
+
+    /**
+     * Записывает информацию о прибытии самолета в заданный момент.
+     * Если у рейса есть действующая бронь полосы, он сразу получает забронированную полосу.
+     * Иначе свободная полоса достается новому самолету только при пустой очереди: сначала
+     * полосы, освободившиеся после окончания броней, получают самолеты из очереди.
+     * @param flightIn Номер рейса
+     * @param now Текущее время, мс
+     * @return Номер посадочной полосы
+     * @throws AirportException Ошибка при посадке или включении в очередь
+     */
+    int arriveAtAirport(String flightIn, long now) throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.ARRIVE, flightIn, Long.toString(now));
+            getPlane(flightIn);
+            dispatch(now);
+            Runway vacantRunway = reservedRunway(flightIn, now);
+            if (vacantRunway == null && circlingQ.isEmpty())
+                vacantRunway = nextFreeRunway(flightIn, now);
+            if (vacantRunway != null) {
+                descend(flightIn, vacantRunway, now);
+                return vacantRunway.getNumber();
+            }
+            else {
+                circle(flightIn, now);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Записывает информацию о посадке
+     * @param flightIn Номер рейса
+     * @param runwayNumberIn Номер посадочной полосы
+     * @throws AirportException Ошибка в статусе рейса
+     */
+    public void landAtAirport(String flightIn, int runwayNumberIn) throws AirportException {
+        landAtAirport(flightIn, runwayNumberIn, System.currentTimeMillis());
+    }
+
+    /**
+     * Записывает информацию о посадке в заданный момент
+     * @param flightIn Номер рейса
+     * @param runwayNumberIn Номер посадочной полосы
+     * @param now Текущее время, мс
+     * @throws AirportException Ошибка в статусе рейса
+     */
+    void landAtAirport(String flightIn, int runwayNumberIn, long now) throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.LAND, flightIn, Integer.toString(runwayNumberIn), Long.toString(now));
+            Plane plane = getPlane(flightIn);
+            if (plane.getRunwayNumber() != runwayNumberIn)
+                throw new AirportException("Самолет с рейса " + flightIn + " не должен садиться на эту полосу!");
+            if (plane.getStatus() == PlaneStatus.DUE)
+                throw new AirportException("Самолет с рейса " + flightIn + " не сообщал о прибытии!");
+            if (plane.getStatus().compareTo(PlaneStatus.WAITING) > 0)
+                throw new AirportException("Самолет с рейса " + flightIn + " уже приземлился!");
+            plane.upgradeStatus(now);
+            changed(BoardEventType.STATUS_CHANGED, plane);
+        }
+    }
+
+    /**
+     * Записывает информацию о готовности к посадке пассажиров
+     * @param flightIn Номер рейса
+     * @param destination Аэропорт отправления
+     * @throws AirportException Ошибка в статусе рейса
+     */
+    public void readyForBoarding(String flightIn, String destination) throws AirportException {
+        readyForBoarding(flightIn, destination, System.currentTimeMillis());
+    }
+
+    /**
+     * Записывает информацию о готовности к посадке пассажиров в заданный момент
+     * @param flightIn Номер рейса
+     * @param destination Аэропорт отправления
+     * @param now Текущее время, мс
+     * @throws AirportException Ошибка в статусе рейса
+     */
+    void readyForBoarding(String flightIn, String destination, long now) throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.BOARD, flightIn, destination, Long.toString(now));
+            Plane plane = getPlane(flightIn);
+            if (plane.getStatus().compareTo(PlaneStatus.LANDED) < 0)
+                throw new AirportException("Самолет с рейса " + flightIn + " не приземлялся!");
+            if (plane.getStatus() == PlaneStatus.DEPARTING)
+                throw new AirportException("Самолет с рейса " + flightIn + " уже ожидает вылет!");
+            plane.upgradeStatus(now);
+            plane.changeCity(destination);
+            changed(BoardEventType.STATUS_CHANGED, plane);
+        }
+    }
+
+    /**
+     * Записывает информацию о взлете
+     * @param flightIn Номер рейса
+     * @return Экземпляр нового обрабатываемого самолета
+     * @throws AirportException Ошибка при включении в очередь
+     */
+    public Plane takeOff(String flightIn) throws AirportException {
+        return takeOff(flightIn, System.currentTimeMillis());
+    }
+
+    /**
+     * Записывает информацию о взлете в заданный момент
+     * @param flightIn Номер рейса
+     * @param now Текущее время, мс
+     * @return Экземпляр нового обрабатываемого самолета
+     * @throws AirportException Ошибка при включении в очередь
+     */
+    Plane takeOff(String flightIn, long now) throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.TAKE_OFF, flightIn, Long.toString(now));
+            leave(flightIn, now);
+            Plane next = dispatch(now);
+            return next == null ? null : next.share();
+        }
+    }
+
+    /**
+     * Бронирует посадочную полосу на будущий интервал времени
+     * @param flightIn Номер рейса
+     * @param from Начало интервала включительно, мс
+     * @param to Конец интервала не включительно, мс
+     * @return Номер забронированной полосы
+     * @throws AirportException Ошибка в статусе рейса или нет свободной полосы на этот интервал
+     */
+    public int reserveLanding(String flightIn, long from, long to) throws AirportException {
+        return reserveLanding(flightIn, from, to, System.currentTimeMillis());
+    }
+
+    /**
+     * Бронирует посадочную полосу на будущий интервал времени в заданный момент
+     * @param flightIn Номер рейса
+     * @param from Начало интервала включительно, мс
+     * @param to Конец интервала не включительно, мс
+     * @param now Текущее время, мс
+     * @return Номер забронированной полосы
+     * @throws AirportException Ошибка в статусе рейса или нет свободной полосы на этот интервал
+     */
+    int reserveLanding(String flightIn, long from, long to, long now) throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.RESERVE, flightIn, Long.toString(from), Long.toString(to),
+                        Long.toString(now));
+            Plane plane = getPlane(flightIn);
+            if (plane.getStatus() != PlaneStatus.DUE)
+                throw new AirportException("Самолет с рейса " + flightIn + " уже прибыл в аэропорт");
+            if (to <= now)
+                throw new AirportException("Интервал брони рейса " + flightIn + " уже прошел");
+            if (getReservation(flightIn) != null)
+                throw new AirportException("Рейс " + flightIn + " уже забронировал полосу");
+            dispatch(now);
+            for (Runway runway : runways) {
+                if (runway.getCalendar().isFree(from, to)) {
+                    Reservation reservation = new Reservation(flightIn, runway.getNumber(), from, to);
+                    runway.getCalendar().reserve(reservation);
+                    if (changeLog != null)
+                        changeLog.reserved(reservation);
+                    changed(BoardEventType.RUNWAY_RESERVED, plane);
+                    return runway.getNumber();
+                }
+            }
+            throw new AirportException("Нет свободной полосы для рейса " + flightIn + " на указанное время");
+        }
+    }
+
+    /**
+     * Отменяет бронь посадочной полосы
+     * @param flightIn Номер рейса
+     * @throws AirportException Рейс не зарегистрирован или не бронировал полосу
+     */
+    public void cancelReservation(String flightIn) throws AirportException {
+        cancelReservation(flightIn, System.currentTimeMillis());
+    }
+
+    /**
+     * Отменяет бронь посадочной полосы в заданный момент.
+     * Освободившаяся полоса сразу достается самолету из очереди.
+     * @param flightIn Номер рейса
+     * @param now Текущее время, мс
+     * @throws AirportException Рейс не зарегистрирован или не бронировал полосу
+     */
+    void cancelReservation(String flightIn, long now) throws AirportException {
+        synchronized (commandLock()) {
+            if (recorder != null)
+                recorder.record(CommandRecorder.CANCEL, flightIn, Long.toString(now));
+            Plane plane = getPlane(flightIn);
+            if (releaseReservation(flightIn) == null)
+                throw new AirportException("Рейс " + flightIn + " не бронировал полосу");
+            changed(BoardEventType.RESERVATION_CANCELLED, plane);
+            dispatch(now);
+        }
+    }
+
+    /**
+     * Бронь рейса
+     * @param flightIn Номер рейса
+     * @return Бронь или null, если рейс не бронировал полосу
+     */
+    public Reservation getReservation(String flightIn) {
+        for (Runway runway : runways) {
+            Reservation reservation = runway.getCalendar().getReservation(flightIn);
+            if (reservation != null)
+                return reservation;
+        }
+        return null;
+    }
+
+    /**
+     * Поиск ближайшего времени, с которого хотя бы одна полоса свободна от броней
+     * @param from Время, не раньше которого должен начинаться интервал, мс
+     * @param duration Длина интервала, мс
+     * @return Начало ближайшего свободного интервала, мс
+     */
+    public long nextFreeSlot(long from, long duration) {
+        long best = Long.MAX_VALUE;
+        for (Runway runway : runways)
+            best = Math.min(best, runway.getCalendar().nextFreeSlot(from, duration));
+        return best;
+    }
+
+    /**
+     * Лист ожидания прибывающих самолетов.
+     * Возвращается неизменяемое представление, которое всегда отражает текущее состояние
+     * аэропорта и не создает множеств при изменениях. Самолеты, полученные из него, не
+     * используются повторно для других рейсов; для вывода на экран лучше подходит
+     * {@link #getArrivalsBoard(BoardOrder)}.
+     * @return Лист ожидания в форме множества
+     */
+    public Set<Plane> getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * Лист ожидания улетающих самолетов.
+     * Возвращается неизменяемое представление, которое всегда отражает текущее состояние
+     * аэропорта и не создает множеств при изменениях. Самолеты, полученные из него, не
+     * используются повторно для других рейсов; для вывода на экран лучше подходит
+     * {@link #getDeparturesBoard(BoardOrder)}.
+     * @return Лист ожидания в форме множества
+     */
+    public Set<Plane> getDepartures() {
+        return departures;
+    }
+
+    /**
+     * Подписка на изменения табло прибытий и отправлений
+     * @param subscriber Подписчик, получающий события изменения рейсов
+     */
+    public void subscribe(Flow.Subscriber<? super BoardEvent> subscriber) {
+        board.subscribe(subscriber);
+    }
+
+    /**
+     * Табло прибытий.
+     * Пока аэропорт не меняется, возвращается одна и та же проекция; при изменении заново
+     * форматируются только строки изменившихся рейсов, остальные строки общие с прошлой проекцией.
+     * @param order Порядок строк
+     * @return Проекция табло для текущей версии
+     */
+    public BoardProjection getArrivalsBoard(BoardOrder order) {
+        return board(arrivalsBoards, order, false);
+    }
+
+    /**
+     * Табло отправлений.
+     * Пока аэропорт не меняется, возвращается одна и та же проекция; при изменении заново
+     * форматируются только строки изменившихся рейсов, остальные строки общие с прошлой проекцией.
+     * @param order Порядок строк
+     * @return Проекция табло для текущей версии
+     */
+    public BoardProjection getDeparturesBoard(BoardOrder order) {
+        return board(departuresBoards, order, true);
+    }
+
+    /**
+     * Возвращает число посадочных полос
+     * @return Общее число посадочных полос
+     */
+    public int getNumberOfRunways() {
+        return runways.length;
+    }
+
+    /**
+     * Возвращает текущую версию состояния
+     * @return Версия, увеличивающаяся при каждом изменении
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Неизменяемый снимок текущего состояния.
+     * Пока аэропорт не меняется, возвращается один и тот же снимок, а записи о
+     * самолетах переиспользуются между снимками, если самолет не менялся.
+     * Метод вызывается в потоке, который изменяет аэропорт; полученный снимок можно
+     * передавать в другие потоки.
+     * @return Снимок состояния
+     */
+    public AirportSnapshot snapshot() {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            Map<String, PlaneRecord> records = new HashMap<>();
+            for (Plane plane : planes)
+                records.put(plane.getFlightNumber(), plane.toRecord());
+            RunwayRecord[] runwayRecords = new RunwayRecord[runways.length];
+            List<Reservation> reservations = new ArrayList<>();
+            for (int i = 0; i < runways.length; i++) {
+                runwayRecords[i] = runways[i].toRecord();
+                reservations.addAll(runways[i].getCalendar().getReservations());
+            }
+            snapshot = new AirportSnapshot(version, records, new ArrayList<>(circlingQ), runwayRecords, reservations);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Подключает архив, в который записываются взлетевшие рейсы
+     * @param archiveIn Архив завершенных рейсов или null, чтобы перестать вести архив
+     */
+    public void setArchive(FlightArchive archiveIn) {
+        archive = archiveIn;
+    }
+
+    /**
+     * Подключает запись команд для последующего воспроизведения.
+     * В файл сразу записывается число посадочных полос; если аэропорт не пуст,
+     * при воспроизведении нужно указать его текущее состояние как начальное.
+     * @param recorderIn Запись команд или null, чтобы перестать записывать
+     */
+    public void setRecorder(CommandRecorder recorderIn) {
+        recorder = recorderIn;
+        if (recorder != null)
+            recorder.record(CommandRecorder.RUNWAYS, Integer.toString(runways.length));
+    }
+
+    /**
+     * Включает журнал изменений для фоновых контрольных точек
+     * @return Журнал, в который аэропорт будет записывать изменения
+     */
+    ChangeLog startChangeLog() {
+        changeLog = new ChangeLog();
+        return changeLog;
+    }
+
+    /**
+     * Монитор, под которым выполняется одна команда.
+     * Пока ведется журнал изменений, это сам журнал: команда дописывает в него несколько записей,
+     * и {@link ChangeLog#drain()} из фонового потока ждет конца команды, поэтому ее записи
+     * всегда попадают в один блок.
+     * @return Журнал изменений или сам аэропорт, если журнал не ведется
+     */
+    private Object commandLock() {
+        return changeLog != null ? changeLog : this;
+    }
+
+    /**
+     * Выгружает текущее состояние в файл
+     * @param fileIn Имя файла
+     * @throws IOException Ошибка при записи файла
+     */
+    public void save(String fileIn) throws IOException {
+        snapshot().save(fileIn);
+    }
+
+    /**
+     * Загружает текущее состояние из файла.
+     * Подписчики получают событие {@link BoardEventType#REFRESHED}: изменения отдельных рейсов
+     * при загрузке не рассылаются, и табло нужно перечитать целиком.
+     * @param fileName Имя файла
+     * @throws IOException Ошибка при чтении файла
+     * @throws ClassNotFoundException Ошибка при разборе файла
+     */
+    public void load(String fileName) throws IOException, ClassNotFoundException {
+        try  (FileInputStream fileInput = new FileInputStream(fileName);
+              ObjectInputStream objInput = new ObjectInputStream(fileInput)){
+            planes = new PlaneRegistry();
+            for (Plane plane : ((Map<String, Plane>)objInput.readObject()).values())
+                planes.put(plane);
+            circlingQ = (List<String>)objInput.readObject();
+            runways = (Runway[])objInput.readObject();
+        }
+        version++;
+        snapshot = null;
+        if (board.hasSubscribers())
+            board.publish(new BoardEvent(BoardEventType.REFRESHED));
+    }
+
+    /**
+     * Поиск свободной полосы.
+     * Полоса, на которую в данный момент действует бронь другого рейса, не выдается; не выдается
+     * и полоса, на которую самолет предыдущего рейса получил разрешение раньше интервала
+     * турбулентности следа.
+     * @param flightIn Номер рейса, которому нужна полоса
+     * @param now Текущее время, мс
+     * @return Свободная посадочная полоса
+     */
+    private Runway nextFreeRunway(String flightIn, long now) {
+        WakeCategory category = getPlane(flightIn).getWakeCategory();
+        for (Runway nextRunway : runways) {
+            if (nextRunway.isAllocated() || now < nextRunway.readyAt(category))
+                continue;
+            Reservation reservation = nextRunway.getCalendar().reservationAt(now);
+            if (reservation == null || reservation.getFlightNumber().equals(flightIn))
+                return nextRunway;
+        }
+        return null;
+    }
+
+    /**
+     * Поиск полосы, забронированной рейсом на текущий момент
+     * @param flightIn Номер рейса
+     * @param now Текущее время, мс
+     * @return Свободная забронированная полоса или null
+     */
+    private Runway reservedRunway(String flightIn, long now) {
+        Reservation reservation = getReservation(flightIn);
+        if (reservation == null || !reservation.covers(now))
+            return null;
+        Runway runway = runways[reservation.getRunwayNumber() - 1];
+        if (runway.isAllocated() || now < runway.readyAt(getPlane(flightIn).getWakeCategory()))
+            return null;
+        return runway;
+    }
+
+    /**
+     * Снимает бронь рейса, если она есть
+     * @param flightIn Номер рейса
+     * @return Снятая бронь или null
+     */
+    private Reservation releaseReservation(String flightIn) {
+        for (Runway runway : runways) {
+            Reservation reservation = runway.getCalendar().cancel(flightIn);
+            if (reservation != null) {
+                if (changeLog != null)
+                    changeLog.cancelled(flightIn);
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Проекция табло из кэша или построенная заново для текущей версии
+     * @param boards Построители табло по порядку строк
+     * @param order Порядок строк
+     * @param departing Строится ли табло отправлений
+     * @return Проекция табло
+     */
+    private BoardProjection board(Map<BoardOrder, BoardBuilder> boards, BoardOrder order, boolean departing) {
+        BoardBuilder builder = boards.get(order);
+        if (builder == null) {
+            builder = new BoardBuilder(order, departing);
+            boards.put(order, builder);
+        }
+        return builder.build(planes, version, ++boardBuilds);
+    }
+
+    /**
+     * Пересчет порядка очереди на посадку с учетом турбулентности следа.
+     * Вызывается при каждом пополнении очереди. Оптимизатор исходит из той же последней посадки
+     * на каждой полосе, по которой полосы выдаются самолетам, и ограничен объемом работы, а не
+     * временем, поэтому при воспроизведении команд порядок получается тем же.
+     * @param now Текущее время, мс
+     */
+    private void resequence(long now) {
+        int n = circlingQ.size();
+        if (n < 2)
+            return;
+        //смещение ограничивается относительно порядка прибытия, а не текущего порядка очереди
+        List<String> arrivalOrder = new ArrayList<>(circlingQ);
+        arrivalOrder.sort(Comparator.comparingLong(flight -> planes.get(flight).getStatusTime(PlaneStatus.WAITING)));
+        WakeCategory[] categories = new WakeCategory[n];
+        long[] queuedAt = new long[n];
+        for (int i = 0; i < n; i++) {
+            Plane plane = planes.get(arrivalOrder.get(i));
+            categories[i] = plane.getWakeCategory();
+            queuedAt[i] = plane.getStatusTime(PlaneStatus.WAITING);
+        }
+        WakeCategory[] leaders = new WakeCategory[runways.length];
+        long[] leaderTimes = new long[runways.length];
+        for (int i = 0; i < runways.length; i++) {
+            leaders[i] = runways[i].getLastCategory();
+            leaderTimes[i] = runways[i].getLastLandingAt();
+        }
+        int[] order = sequencer.sequence(categories, queuedAt, leaders, leaderTimes, now);
+        List<String> sequenced = new ArrayList<>(n);
+        for (int index : order)
+            sequenced.add(arrivalOrder.get(index));
+        if (sequenced.equals(circlingQ))
+            return;
+        if (changeLog != null)
+            changeLog.queueReordered(sequenced);
+        circlingQ.clear();
+        circlingQ.addAll(sequenced);
+        version++;
+    }
+
+    /**
+     * Поиск самолета по номеру рейса
+     * @param flightIn Номер рейса
+     * @return Экземпляр класса Самолет
+     * @throws AirportException Ошибка при получении номера рейса
+     */
+    Plane getPlane(String flightIn) throws AirportException {
+        Plane plane = planes.get(flightIn);
+        if (plane == null)
+            throw new AirportException("Рейс " + flightIn + " не был зарегистрирован");
+        return plane;
+    }
+
+    /**
+     * Выполняет действия при готовности к посадке
+     * @param flightIn Номер рейса
+     * @param runwayIn Посадочная полоса
+     * @param now Текущее время, мс
+     * @throws AirportException Ошибка статуса рейса
+     */
+    private void descend(String flightIn, Runway runwayIn, long now) throws AirportException {
+        Plane plane = getPlane(flightIn);
+        if (plane.getStatus().compareTo(PlaneStatus.WAITING) > 0)
+            throw new AirportException("Самолет с рейса " + flightIn
+                    + " уже в аэропорту со статусом " + plane.getStatusName());
+        if (plane.isAllocatedRunway())
+            throw new AirportException("Самолет с рейса " + flightIn
+                    + " уже приписан к полосе " + plane.getRunwayNumber());
+        plane.allocateRunway(runwayIn);
+        runwayIn.cleared(plane.getWakeCategory(), now);
+        releaseReservation(flightIn);
+        if (plane.getStatus() == PlaneStatus.DUE)
+            plane.upgradeStatus(now);
+        changed(BoardEventType.RUNWAY_ASSIGNED, plane);
+    }
+
+    /**
+     * Снятие истекших броней и выдача свободных полос самолетам из очереди.
+     * Забронированная полоса достается своему рейсу, если он уже ждет в очереди, остальные
+     * полосы - самолетам по порядку очереди. Полоса выдается не раньше интервала турбулентности
+     * следа после предыдущего самолета на ней. Если голове очереди мешает действующая бронь
+     * другого рейса или интервал следа, остальные тоже ждут, чтобы не обгонять голову; полоса
+     * достается голове при первой же команде после окончания брони или интервала.
+     * @param now Текущее время, мс
+     * @return Первый самолет, получивший полосу, или null
+     */
+    private Plane dispatch(long now) {
+        for (Runway runway : runways) {
+            for (Reservation expired : runway.getCalendar().expire(now)) {
+                if (changeLog != null)
+                    changeLog.cancelled(expired.getFlightNumber());
+                Plane plane = planes.get(expired.getFlightNumber());
+                if (plane != null)
+                    changed(BoardEventType.RESERVATION_CANCELLED, plane);
+                else
+                    version++;
+            }
+        }
+        Plane first = null;
+        for (Runway runway : runways) {
+            Reservation active = runway.isAllocated() ? null : runway.getCalendar().reservationAt(now);
+            if (active == null || reservedRunway(active.getFlightNumber(), now) != runway)
+                continue;
+            if (circlingQ.remove(active.getFlightNumber())) {
+                if (changeLog != null)
+                    changeLog.dequeued(active.getFlightNumber());
+                Plane holder = getPlane(active.getFlightNumber());
+                descend(active.getFlightNumber(), runway, now);
+                if (first == null)
+                    first = holder;
+            }
+        }
+        while (!circlingQ.isEmpty()) {
+            Runway vacantRunway = nextFreeRunway(circlingQ.get(0), now);
+            if (vacantRunway == null)
+                break;
+            Plane nextFlight = nextToLand();
+            descend(nextFlight.getFlightNumber(), vacantRunway, now);
+            if (first == null)
+                first = nextFlight;
+        }
+        return first;
+    }
+
+    /**
+     * Выполняет действия при неготовности аэропорта к посадке
+     * @param flightIn Номер рейса
+     * @param now Текущее время, мс
+     * @throws AirportException Ошибка статуса рейса
+     */
+    private void circle(String flightIn, long now) throws AirportException {
+        Plane plane = getPlane(flightIn);
+        if (plane.getStatus() != PlaneStatus.DUE)
+            throw new AirportException("Самолет с рейса " + flightIn + " уже прибыл в аэропорт");
+        plane.upgradeStatus(now);
+        circlingQ.add(flightIn);
+        if (changeLog != null)
+            changeLog.queued(flightIn);
+        changed(BoardEventType.STATUS_CHANGED, plane);
+        resequence(now);
+    }
+
+    /**
+     * Выполняет действия при взлете самолета.
+     * Рейс записывается в архив до любых изменений состояния: если запись не удалась,
+     * взлет отменяется целиком, и повторный вызов не создаст второй записи.
+     * @param flightIn Номер рейса
+     * @param now Время взлета, мс
+     * @throws AirportException Ошибка статуса рейса или ошибка записи в архив
+     */
+    private void leave(String flightIn, long now) throws AirportException {
+        Plane plane = getPlane(flightIn);
+        if (plane.getStatus().compareTo(PlaneStatus.LANDED) < 0)
+            throw new AirportException("Самолет с рейса " + flightIn + " не приземлялся!");
+        if (plane.getStatus() == PlaneStatus.LANDED)
+            throw new AirportException("На самолет с рейса " + flightIn + " не была объявлена посадка!");
+        if (archive != null) {
+            try {
+                archive.append(new ArchivedFlight(plane, now));
+            } catch (IOException e) {
+                throw new AirportException("Ошибка при записи рейса " + flightIn + " в архив");
+            }
+        }
+        plane.vacateRunway();
+        planes.remove(flightIn);
+        changed(BoardEventType.DEPARTED, plane);
+        if (!plane.isShared() && planePool.size() < PLANE_POOL_SIZE)
+            planePool.addFirst(plane);
+    }
+
+    /**
+     * Возвращает самолет который можно посадить
+     * @return Следующий самолет готовый к посадке
+     */
+    private Plane nextToLand() {
+        if (!circlingQ.isEmpty()) {
+            String flight = circlingQ.get(0);
+            circlingQ.remove(flight);
+            if (changeLog != null)
+                changeLog.dequeued(flight);
+            return getPlane(flight);
+        }
+        return null;
+    }
+
+    /**
+     * Фиксирует изменение рейса: увеличивает версию и рассылает событие подписчикам
+     * @param type Тип изменения
+     * @param plane Измененный самолет
+     */
+    private void changed(BoardEventType type, Plane plane) {
+        version++;
+        if (changeLog != null) {
+            if (type == BoardEventType.DEPARTED)
+                changeLog.planeRemoved(plane.getFlightNumber());
+            else
+                changeLog.planeChanged(plane.toRecord());
+            if (type == BoardEventType.RUNWAY_ASSIGNED || type == BoardEventType.DEPARTED)
+                changeLog.runwayChanged(plane.getTheRunway().toRecord());
+        }
+        if (board.hasSubscribers())
+            board.publish(new BoardEvent(type, plane));
+    }
+
+    /**
+     * Неизменяемое представление зарегистрированных самолетов одного табло.
+     * Обход идет прямо по таблице самолетов; выданные при обходе самолеты помечаются
+     * как переданные внешнему коду.
+     */
+    private class PlaneView extends AbstractSet<Plane> {
+        private final boolean departing;    //самолеты, ожидающие вылета, или прибывающие
+
+        PlaneView(boolean departingIn) {
+            departing = departingIn;
+        }
+
+        @Override
+        public int size() {
+            int count = 0;
+            for (int slot = 0; slot < planes.capacity(); slot++) {
+                Plane plane = planes.at(slot);
+                if (plane != null && isOnBoard(plane))
+                    count++;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean contains(Object objIn) {
+            if (!(objIn instanceof Plane))
+                return false;
+            Plane plane = planes.get(((Plane) objIn).getFlightNumber());
+            return plane == objIn && isOnBoard(plane);
+        }
+
+        @Override
+        public Iterator<Plane> iterator() {
+            return new Iterator<Plane>() {
+                private final PlaneRegistry table = planes;     //таблица, по которой идет обход
+                private int next = advance(0);
+
+                private int advance(int from) {
+                    while (from < table.capacity() && (table.at(from) == null || !isOnBoard(table.at(from))))
+                        from++;
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < table.capacity();
+                }
+
+                @Override
+                public Plane next() {
+                    if (next >= table.capacity())
+                        throw new NoSuchElementException();
+                    Plane plane = table.at(next);
+                    next = advance(next + 1);
+                    return plane.share();
+                }
+            };
+        }
+
+        private boolean isOnBoard(Plane plane) {
+            return (plane.getStatus() == PlaneStatus.DEPARTING) == departing;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.airport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Периодическое сохранение аэропорта в фоновом потоке.
+ * Полное состояние хранится в основном файле в формате {@link Airport#save(String)}, а каждая
+ * контрольная точка дописывает в файл с расширением .delta только изменившиеся с прошлого раза
+ * самолеты, очередь и полосы. После заданного числа контрольных точек изменения сливаются
+ * с основным файлом.
+ * <p>Сбой записи не теряет изменений: невыписанный блок возвращается в журнал, а перед следующей
+ * записью файл изменений сливается с основным, чтобы недописанный блок не оказался перед новыми.
+ * Если не удалось записать начальное состояние, изменения копятся в журнале до успешной записи.
+ * Ошибки передаются обработчику, заданному в конструкторе, и доступны через {@link #getLastError()}.
+ */
+public class AirportCheckpointer implements AutoCloseable {
+    private static final String DELTA_SUFFIX = ".delta";    //расширение файла изменений
+
+    private final String fileName;                  //основной файл состояния
+    private final int compactAfter;                 //число контрольных точек до слияния
+    private final ScheduledExecutorService executor;   //фоновый поток записи
+    private final Consumer<Exception> errorHandler;    //обработчик ошибок фоновой записи
+    private ChangeLog changeLog;                    //журнал изменений аэропорта
+    private AirportSnapshot pendingBase;            //начальное состояние, которое еще не удалось записать
+    private boolean compactBeforeWrite;             //в файле изменений может быть недописанный блок
+    private int deltas;                             //число блоков в файле изменений
+    private volatile Exception lastError;           //последняя ошибка фоновой записи
+
+    /**
+     * Конструктор без обработчика ошибок: ошибки доступны только через {@link #getLastError()}
+     * @param fileNameIn Имя основного файла состояния
+     * @param compactAfterIn Число контрольных точек, после которого изменения сливаются с основным файлом
+     * @throws AirportException Неверное число контрольных точек
+     */
+    public AirportCheckpointer(String fileNameIn, int compactAfterIn) throws AirportException {
+        this(fileNameIn, compactAfterIn, e -> { });
+    }
+
+    /**
+     * Конструктор
+     * @param fileNameIn Имя основного файла состояния
+     * @param compactAfterIn Число контрольных точек, после которого изменения сливаются с основным файлом
+     * @param errorHandlerIn Обработчик ошибок записи, вызывается в фоновом потоке
+     * @throws AirportException Неверное число контрольных точек
+     */
+    public AirportCheckpointer(String fileNameIn, int compactAfterIn, Consumer<Exception> errorHandlerIn)
+            throws AirportException {
+        if (compactAfterIn < 1)
+            throw new AirportException("Неверное число контрольных точек до слияния " + compactAfterIn);
+        fileName = fileNameIn;
+        compactAfter = compactAfterIn;
+        errorHandler = errorHandlerIn;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "airport-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запуск периодических контрольных точек.
+     * Вызывается в потоке, который изменяет аэропорт: в нем снимается начальный снимок
+     * и включается журнал изменений.
+     * @param airport Аэропорт
+     * @param periodMillis Период контрольных точек в миллисекундах
+     * @throws AirportException Контрольные точки уже запущены
+     */
+    public void start(Airport airport, long periodMillis) throws AirportException {
+        if (changeLog != null)
+            throw new AirportException("Контрольные точки уже запущены");
+        AirportSnapshot base = airport.snapshot();
+        changeLog = airport.startChangeLog();
+        executor.execute(() -> {
+            pendingBase = base;
+            writeBase();
+        });
+        executor.scheduleWithFixedDelay(this::checkpoint, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка с записью последней контрольной точки и слиянием изменений
+     * @throws InterruptedException Прерывание во время ожидания записи
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.execute(() -> {
+            checkpoint();
+            compactQuietly();
+        });
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Последняя ошибка фоновой записи
+     * @return Ошибка или null, если ошибок не было
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Восстановление аэропорта из основного файла и файла изменений
+     * @param fileNameIn Имя основного файла состояния
+     * @return Восстановленный аэропорт
+     * @throws IOException Ошибка при чтении или записи файлов
+     * @throws ClassNotFoundException Ошибка при разборе основного файла
+     */
+    public static Airport restore(String fileNameIn) throws IOException, ClassNotFoundException {
+        compact(fileNameIn);
+        return new Airport(fileNameIn);
+    }
+
+    /**
+     * Слияние файла изменений с основным файлом.
+     * Новое состояние пишется во временный файл и атомарно заменяет основной.
+     * @param fileNameIn Имя основного файла состояния
+     * @throws IOException Ошибка при чтении или записи файлов
+     * @throws ClassNotFoundException Ошибка при разборе основного файла
+     */
+    public static void compact(String fileNameIn) throws IOException, ClassNotFoundException {
+        File delta = new File(fileNameIn + DELTA_SUFFIX);
+        if (!delta.exists())
+            return;
+        AirportSnapshot base = new Airport(fileNameIn).snapshot();
+        Map<String, PlaneRecord> planes = new LinkedHashMap<>(base.getPlanes());
+        List<String> circlingQ = new ArrayList<>(base.getCirclingQ());
+        List<Reservation> reservations = new ArrayList<>(base.getReservations());
+        RunwayRecord[] runways = base.getRunways();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(delta)))) {
+            while (true)
+                ChangeLog.applyFrom(in, planes, circlingQ, runways, reservations);
+        } catch (EOFException e) {
+            //конец файла или недописанный при сбое последний блок
+        }
+        File temp = new File(fileNameIn + ".tmp");
+        new AirportSnapshot(base.getVersion(), planes, circlingQ, runways, reservations).save(temp.getPath());
+        Files.move(temp.toPath(), new File(fileNameIn).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(delta.toPath());
+    }
+
+    /**
+     * Запись начального полного состояния.
+     * При ошибке состояние остается ожидающим записи, а журнал продолжает копить изменения.
+     * @return Записано ли начальное состояние
+     */
+    private boolean writeBase() {
+        try {
+            File temp = new File(fileName + ".tmp");
+            pendingBase.save(temp.getPath());
+            Files.move(temp.toPath(), new File(fileName).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(new File(fileName + DELTA_SUFFIX).toPath());
+            pendingBase = null;
+            deltas = 0;
+            return true;
+        } catch (IOException e) {
+            report(e);
+            return false;
+        }
+    }
+
+    /**
+     * Контрольная точка: дописывает накопленные изменения в файл изменений.
+     * Изменения, которые не удалось записать, возвращаются в журнал.
+     */
+    private void checkpoint() {
+        if (pendingBase != null && !writeBase())
+            return;
+        if (compactBeforeWrite) {
+            if (!compactQuietly())
+                return;
+            compactBeforeWrite = false;
+        }
+        if (changeLog.isEmpty())
+            return;
+        ChangeLog batch = changeLog.drain();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(fileName + DELTA_SUFFIX, true)))) {
+            batch.writeTo(out);
+        } catch (IOException e) {
+            changeLog.requeue(batch);
+            compactBeforeWrite = true;
+            report(e);
+            return;
+        }
+        if (++deltas >= compactAfter)
+            compactQuietly();
+    }
+
+    /**
+     * Слияние изменений с основным файлом в фоновом потоке
+     * @return Выполнено ли слияние
+     */
+    private boolean compactQuietly() {
+        try {
+            compact(fileName);
+            deltas = 0;
+            return true;
+        } catch (IOException | ClassNotFoundException e) {
+            report(e);
+            return false;
+        }
+    }
+
+    /**
+     * Передача ошибки фоновой записи обработчику.
+     * Исключение обработчика не должно останавливать периодические контрольные точки.
+     * @param e Ошибка
+     */
+    private void report(Exception e) {
+        lastError = e;
+        try {
+            errorHandler.accept(e);
+        } catch (RuntimeException handlerError) {
+            e.addSuppressed(handlerError);
+        }
+    }
+}
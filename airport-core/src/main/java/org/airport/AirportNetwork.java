@@ -0,0 +1,355 @@
+package org.airport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Региональная сеть аэропортов.
+ * Каждый аэропорт сети принадлежит собственному потоку и изменяется только в нем,
+ * поэтому блокировки на состоянии аэропорта не нужны. Команды передаются потоку аэропорта
+ * через ограниченную очередь, а при посадке пассажиров рейс передается в аэропорт назначения
+ * сообщением в его очередь. После закрытия сети новые команды завершаются ошибкой.
+ */
+public class AirportNetwork implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;             //емкость очереди по умолчанию
+
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();   //аэропорты сети по городам
+    private final int queueCapacity;                                        //емкость очереди каждого аэропорта
+    private volatile boolean closed;                                        //сеть остановлена
+
+    /**
+     * Конструктор сети с емкостью очередей по умолчанию
+     */
+    public AirportNetwork() {
+        this(DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Конструктор сети
+     * @param queueCapacityIn Емкость очереди команд каждого аэропорта
+     * @throws AirportException Неверная емкость очереди
+     */
+    public AirportNetwork(int queueCapacityIn) throws AirportException {
+        if (queueCapacityIn < 1)
+            throw new AirportException("Неверная емкость очереди команд " + queueCapacityIn);
+        queueCapacity = queueCapacityIn;
+    }
+
+    /**
+     * Добавление аэропорта в сеть
+     * @param city Город аэропорта
+     * @param numberOfRunways Число посадочных полос
+     * @throws AirportException Сеть остановлена, аэропорт уже есть в сети или ошибка при его создании
+     */
+    public void addAirport(String city, int numberOfRunways) throws AirportException {
+        if (closed)
+            throw new AirportException("Сеть аэропортов остановлена");
+        Shard shard = new Shard(city, new Airport(numberOfRunways), queueCapacity);
+        if (shards.putIfAbsent(city, shard) != null)
+            throw new AirportException("Аэропорт " + city + " уже входит в сеть");
+        shard.start();
+        if (closed)
+            shard.stop();
+    }
+
+    /**
+     * Города аэропортов сети
+     * @return Множество городов
+     */
+    public Set<String> getCities() {
+        return Collections.unmodifiableSet(shards.keySet());
+    }
+
+    /**
+     * Выполнение операции в потоке аэропорта
+     * @param city Город аэропорта
+     * @param operation Операция над аэропортом
+     * @param <T> Тип результата операции
+     * @return Результат операции, который будет получен в потоке аэропорта;
+     * после закрытия сети завершается ошибкой AirportException
+     * @throws AirportException Аэропорт не входит в сеть
+     */
+    public <T> CompletableFuture<T> submit(String city, Function<Airport, T> operation) throws AirportException {
+        return getShard(city).submit(operation);
+    }
+
+    /**
+     * Регистрация рейса в аэропорту сети
+     * @param city Город аэропорта
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @return Завершение регистрации
+     */
+    public CompletableFuture<Void> registerFlight(String city, String flightIn, String cityOfOrigin) {
+        return registerFlight(city, flightIn, cityOfOrigin, WakeCategory.MEDIUM);
+    }
+
+    /**
+     * Регистрация рейса с категорией турбулентности следа в аэропорту сети
+     * @param city Город аэропорта
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @param wakeCategory Категория турбулентности следа
+     * @return Завершение регистрации
+     */
+    public CompletableFuture<Void> registerFlight(String city, String flightIn, String cityOfOrigin,
+                                                  WakeCategory wakeCategory) {
+        return submit(city, airport -> {
+            airport.registerFlight(flightIn, cityOfOrigin, wakeCategory);
+            return null;
+        });
+    }
+
+    /**
+     * Запрос на посадку в аэропорту сети
+     * @param city Город аэропорта
+     * @param flightIn Номер рейса
+     * @return Номер посадочной полосы или 0, если самолет ожидает в очереди
+     */
+    public CompletableFuture<Integer> arriveAtAirport(String city, String flightIn) {
+        return submit(city, airport -> airport.arriveAtAirport(flightIn));
+    }
+
+    /**
+     * Посадка в аэропорту сети
+     * @param city Город аэропорта
+     * @param flightIn Номер рейса
+     * @param runwayNumberIn Номер посадочной полосы
+     * @return Завершение посадки
+     */
+    public CompletableFuture<Void> landAtAirport(String city, String flightIn, int runwayNumberIn) {
+        return submit(city, airport -> {
+            airport.landAtAirport(flightIn, runwayNumberIn);
+            return null;
+        });
+    }
+
+    /**
+     * Начало посадки пассажиров с передачей рейса в аэропорт назначения.
+     * Если аэропорт назначения входит в сеть, рейс регистрируется в нем как прибывающий
+     * с той же категорией турбулентности следа.
+     * @param city Город аэропорта
+     * @param flightIn Номер рейса
+     * @param destination Аэропорт назначения
+     * @return Завершение посадки пассажиров и регистрации в аэропорту назначения
+     */
+    public CompletableFuture<Void> readyForBoarding(String city, String flightIn, String destination) {
+        CompletableFuture<WakeCategory> boarded = submit(city, airport -> {
+            airport.readyForBoarding(flightIn, destination);
+            return airport.getPlane(flightIn).getWakeCategory();
+        });
+        if (!shards.containsKey(destination))
+            return boarded.thenApply(category -> null);
+        return boarded.thenCompose(category -> handOff(destination, flightIn, city, category));
+    }
+
+    /**
+     * Взлет в аэропорту сети
+     * @param city Город аэропорта
+     * @param flightIn Номер рейса
+     * @return Номер рейса, получившего освободившуюся полосу, или null
+     */
+    public CompletableFuture<String> takeOff(String city, String flightIn) {
+        return submit(city, airport -> {
+            Plane next = airport.takeOff(flightIn);
+            return next == null ? null : next.getFlightNumber();
+        });
+    }
+
+    /**
+     * Сохранение аэропорта сети в файл.
+     * Поток аэропорта только снимает снимок состояния, запись в файл идет в общем пуле
+     * и не задерживает следующие команды.
+     * @param city Город аэропорта
+     * @param fileIn Имя файла
+     * @return Завершение записи
+     */
+    public CompletableFuture<Void> save(String city, String fileIn) {
+        return submit(city, Airport::snapshot).thenAcceptAsync(snapshot -> {
+            try {
+                snapshot.save(fileIn);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Остановка потоков всех аэропортов после выполнения уже принятых команд.
+     * Команды, поданные после закрытия, завершаются ошибкой и не выполняются.
+     * @throws InterruptedException Прерывание во время ожидания остановки
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        for (Shard shard : shards.values())
+            shard.stop();
+        for (Shard shard : shards.values())
+            shard.join();
+    }
+
+    /**
+     * Передача рейса в аэропорт назначения после посадки пассажиров.
+     * Регистрация ставится в очередь сверх ее емкости, чтобы поток аэропорта отправления
+     * не ждал места в чужой очереди.
+     * @param destination Аэропорт назначения
+     * @param flightIn Номер рейса
+     * @param origin Аэропорт отправления
+     * @param wakeCategory Категория турбулентности следа
+     * @return Завершение регистрации
+     */
+    private CompletableFuture<Void> handOff(String destination, String flightIn, String origin,
+                                            WakeCategory wakeCategory) {
+        return getShard(destination).submit(airport -> {
+            airport.registerFlight(flightIn, origin, wakeCategory);
+            return null;
+        }, true);
+    }
+
+    /**
+     * Поиск аэропорта сети по городу
+     * @param city Город аэропорта
+     * @return Аэропорт сети
+     * @throws AirportException Аэропорт не входит в сеть
+     */
+    private Shard getShard(String city) throws AirportException {
+        Shard shard = shards.get(city);
+        if (shard == null)
+            throw new AirportException("Аэропорт " + city + " не входит в сеть");
+        return shard;
+    }
+
+    /**
+     * Аэропорт сети вместе с его потоком и очередью команд
+     */
+    private static class Shard implements Runnable {
+        private static final Runnable STOP = () -> { };     //признак остановки потока
+
+        private final String city;                          //город аэропорта
+        private final Airport airport;                      //состояние аэропорта
+        private final BlockingQueue<Runnable> mailbox = new LinkedBlockingQueue<>();   //очередь команд
+        private final Semaphore permits;                    //свободные места для команд внешних потоков
+        private final Thread thread;                        //поток-владелец аэропорта
+        private boolean closed;                             //очередь закрыта, изменяется под блокировкой mailbox
+
+        Shard(String cityIn, Airport airportIn, int queueCapacity) {
+            city = cityIn;
+            airport = airportIn;
+            permits = new Semaphore(queueCapacity);
+            thread = new Thread(this, "airport-" + cityIn);
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        /**
+         * Постановка операции в очередь аэропорта
+         * @param operation Операция над аэропортом
+         * @param <T> Тип результата
+         * @return Результат операции
+         */
+        <T> CompletableFuture<T> submit(Function<Airport, T> operation) {
+            return submit(operation, false);
+        }
+
+        /**
+         * Постановка операции в очередь аэропорта
+         * @param operation Операция над аэропортом
+         * @param handOff Передача рейса из другого аэропорта, которая ставится сверх емкости очереди
+         * @param <T> Тип результата
+         * @return Результат операции
+         */
+        <T> CompletableFuture<T> submit(Function<Airport, T> operation, boolean handOff) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            enqueue(() -> {
+                try {
+                    result.complete(operation.apply(airport));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            }, result, handOff);
+            return result;
+        }
+
+        /**
+         * Закрытие очереди: команды, принятые до этого момента, будут выполнены,
+         * все последующие отклоняются
+         */
+        void stop() {
+            synchronized (mailbox) {
+                if (closed)
+                    return;
+                closed = true;
+                mailbox.add(STOP);
+            }
+        }
+
+        void join() throws InterruptedException {
+            thread.join();
+        }
+
+        /**
+         * Постановка задачи в очередь.
+         * Команда ждет свободного места, что ограничивает скорость поступления команд, в каком бы
+         * потоке она ни была подана, в том числе из продолжения клиента в потоке аэропорта.
+         * Только передача рейса после посадки пассажиров ставится сверх емкости, иначе два
+         * аэропорта могли бы ждать друг друга. Таких передач не больше, чем команд посадки
+         * пассажиров, уже принятых в очереди других аэропортов, поэтому очередь остается
+         * ограниченной, а единая очередь сохраняет порядок команд для каждого рейса.
+         * @param task Задача
+         * @param result Результат, который завершается ошибкой при прерывании или закрытой очереди
+         * @param handOff Передача рейса, которая не ждет свободного места
+         */
+        private void enqueue(Runnable task, CompletableFuture<?> result, boolean handOff) {
+            Runnable queued = task;
+            if (!handOff) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                queued = () -> {
+                    permits.release();
+                    task.run();
+                };
+            }
+            synchronized (mailbox) {
+                if (!closed) {
+                    mailbox.add(queued);
+                    return;
+                }
+            }
+            if (!handOff)
+                permits.release();
+            result.completeExceptionally(new AirportException("Аэропорт " + city + " остановлен"));
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task;
+                try {
+                    task = mailbox.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == STOP)
+                    return;
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.airport;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок состояния аэропорта.
+ * Снимок можно читать, обходить и сохранять в любом потоке, пока аэропорт продолжает меняться.
+ */
+public final class AirportSnapshot {
+    private final long version;                     //версия аэропорта, с которой снят снимок
+    private final Map<String, PlaneRecord> planes;  //зарегистрированные самолеты
+    private final List<String> circlingQ;           //очередь самолетов на посадку
+    private final RunwayRecord[] runways;           //состояние посадочных полос
+    private final List<Reservation> reservations;   //брони посадочных полос
+
+    /**
+     * Конструктор снимка
+     * @param versionIn Версия аэропорта
+     * @param planesIn Записи о самолетах, принадлежащие снимку
+     * @param circlingQIn Очередь на посадку, принадлежащая снимку
+     * @param runwaysIn Состояние полос, принадлежащее снимку
+     * @param reservationsIn Брони полос, принадлежащие снимку
+     */
+    AirportSnapshot(long versionIn, Map<String, PlaneRecord> planesIn, List<String> circlingQIn,
+                    RunwayRecord[] runwaysIn, List<Reservation> reservationsIn) {
+        version = versionIn;
+        planes = Collections.unmodifiableMap(planesIn);
+        circlingQ = Collections.unmodifiableList(circlingQIn);
+        runways = runwaysIn;
+        reservations = Collections.unmodifiableList(reservationsIn);
+    }
+
+    /**
+     * Геттер версии
+     * @return Версия аэропорта, с которой снят снимок
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Геттер самолетов
+     * @return Записи о самолетах по номерам рейсов
+     */
+    public Map<String, PlaneRecord> getPlanes() {
+        return planes;
+    }
+
+    /**
+     * Геттер очереди на посадку
+     * @return Номера рейсов в порядке очереди
+     */
+    public List<String> getCirclingQ() {
+        return circlingQ;
+    }
+
+    /**
+     * Возвращает число посадочных полос
+     * @return Общее число посадочных полос
+     */
+    public int getNumberOfRunways() {
+        return runways.length;
+    }
+
+    /**
+     * Проверка занятости посадочной полосы
+     * @param number Номер посадочной полосы
+     * @return Назначен ли самолет на полосу
+     * @throws AirportException Неверный номер полосы
+     */
+    public boolean isRunwayAllocated(int number) throws AirportException {
+        if (number < 1 || number > runways.length)
+            throw new AirportException("Неверный номер посадочной полосы " + number);
+        return runways[number - 1].isAllocated();
+    }
+
+    /**
+     * Состояние посадочных полос
+     * @return Копия записей о полосах в порядке номеров
+     */
+    RunwayRecord[] getRunways() {
+        return runways.clone();
+    }
+
+    /**
+     * Геттер броней посадочных полос
+     * @return Брони всех полос
+     */
+    public List<Reservation> getReservations() {
+        return reservations;
+    }
+
+    /**
+     * Лист ожидания прибывающих самолетов
+     * @return Записи о прибывающих самолетах
+     */
+    public List<PlaneRecord> getArrivals() {
+        List<PlaneRecord> out = new ArrayList<>();
+        for (PlaneRecord plane : planes.values()) {
+            if (plane.getStatus() != PlaneStatus.DEPARTING)
+                out.add(plane);
+        }
+        return out;
+    }
+
+    /**
+     * Лист ожидания улетающих самолетов
+     * @return Записи об улетающих самолетах
+     */
+    public List<PlaneRecord> getDepartures() {
+        List<PlaneRecord> out = new ArrayList<>();
+        for (PlaneRecord plane : planes.values()) {
+            if (plane.getStatus() == PlaneStatus.DEPARTING)
+                out.add(plane);
+        }
+        return out;
+    }
+
+    /**
+     * Сравнение состояния без учета версии
+     * @param other Другой снимок
+     * @return Совпадают ли самолеты, очередь, состояние и брони полос
+     */
+    public boolean sameState(AirportSnapshot other) {
+        return other != null && planes.equals(other.planes) && circlingQ.equals(other.circlingQ)
+                && Arrays.equals(runways, other.runways)
+                && reservations.equals(other.reservations);
+    }
+
+    /**
+     * Выгружает снимок в файл в формате, который читает {@link Airport#load(String)}
+     * @param fileIn Имя файла
+     * @throws IOException Ошибка при записи файла
+     */
+    public void save(String fileIn) throws IOException {
+        Runway[] runwaysOut = new Runway[runways.length];
+        for (int i = 0; i < runwaysOut.length; i++)
+            runwaysOut[i] = new Runway(runways[i]);
+        for (Reservation reservation : reservations)
+            runwaysOut[reservation.getRunwayNumber() - 1].getCalendar().reserve(reservation);
+        Map<String, Plane> planesOut = new HashMap<>();
+        for (PlaneRecord record : planes.values()) {
+            Runway runway = record.isAllocatedRunway() ? runwaysOut[record.getRunwayNumber() - 1] : null;
+            planesOut.put(record.getFlightNumber(), new Plane(record, runway));
+        }
+        try  (FileOutputStream fileOut = new FileOutputStream(fileIn);
+              ObjectOutputStream objOut = new ObjectOutputStream(fileOut)){
+            objOut.writeObject(planesOut);
+            objOut.writeObject(new ArrayList<>(circlingQ));
+            objOut.writeObject(runwaysOut);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.airport;
+
+/**
+ * Запись архива о завершенном рейсе
+ */
+public final class ArchivedFlight {
+    private final String flightNumber;  //номер рейса
+    private final String origin;        //аэропорт отправления
+    private final String destination;   //аэропорт назначения
+    private final int runwayNumber;     //номер посадочной полосы
+    private final long registeredAt;    //время регистрации, мс
+    private final long arrivedAt;       //время запроса на посадку, мс
+    private final long landedAt;        //время приземления, мс
+    private final long boardingAt;      //время начала посадки пассажиров, мс
+    private final long departedAt;      //время взлета, мс
+
+    /**
+     * Конструктор записи архива
+     * @param flightIn Номер рейса
+     * @param originIn Аэропорт отправления
+     * @param destinationIn Аэропорт назначения
+     * @param runwayNumberIn Номер посадочной полосы
+     * @param registeredAtIn Время регистрации
+     * @param arrivedAtIn Время запроса на посадку
+     * @param landedAtIn Время приземления
+     * @param boardingAtIn Время начала посадки пассажиров
+     * @param departedAtIn Время взлета
+     */
+    public ArchivedFlight(String flightIn, String originIn, String destinationIn, int runwayNumberIn,
+                          long registeredAtIn, long arrivedAtIn, long landedAtIn, long boardingAtIn,
+                          long departedAtIn) {
+        flightNumber = flightIn;
+        origin = originIn;
+        destination = destinationIn;
+        runwayNumber = runwayNumberIn;
+        registeredAt = registeredAtIn;
+        arrivedAt = arrivedAtIn;
+        landedAt = landedAtIn;
+        boardingAt = boardingAtIn;
+        departedAt = departedAtIn;
+    }
+
+    /**
+     * Конструктор записи архива по взлетающему самолету
+     * @param plane Самолет
+     * @param departedAtIn Время взлета
+     */
+    ArchivedFlight(Plane plane, long departedAtIn) {
+        this(plane.getFlightNumber(), plane.getOrigin(), plane.getCity(), plane.getRunwayNumber(),
+                plane.getStatusTime(PlaneStatus.DUE), plane.getStatusTime(PlaneStatus.WAITING),
+                plane.getStatusTime(PlaneStatus.LANDED), plane.getStatusTime(PlaneStatus.DEPARTING), departedAtIn);
+    }
+
+    /**
+     * Геттер номера рейса
+     * @return Номер рейса
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Геттер аэропорта отправления
+     * @return Аэропорт отправления
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Геттер аэропорта назначения
+     * @return Аэропорт назначения
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Геттер номера посадочной полосы
+     * @return Номер посадочной полосы
+     */
+    public int getRunwayNumber() {
+        return runwayNumber;
+    }
+
+    /**
+     * Геттер времени регистрации
+     * @return Время регистрации, мс
+     */
+    public long getRegisteredAt() {
+        return registeredAt;
+    }
+
+    /**
+     * Геттер времени запроса на посадку
+     * @return Время запроса на посадку, мс
+     */
+    public long getArrivedAt() {
+        return arrivedAt;
+    }
+
+    /**
+     * Геттер времени приземления
+     * @return Время приземления, мс
+     */
+    public long getLandedAt() {
+        return landedAt;
+    }
+
+    /**
+     * Геттер времени начала посадки пассажиров
+     * @return Время начала посадки пассажиров, мс
+     */
+    public long getBoardingAt() {
+        return boardingAt;
+    }
+
+    /**
+     * Геттер времени взлета
+     * @return Время взлета, мс
+     */
+    public long getDepartedAt() {
+        return departedAt;
+    }
+
+    /**
+     * Получение информации о рейсе
+     * @return Информация о рейсе
+     */
+    @Override
+    public String toString() {
+        return "номер рейса: " + flightNumber + "\tоткуда: " + origin + "\tкуда: " + destination
+                + "\tполоса: " + runwayNumber + "\tвзлет: " + departedAt;
+    }
+}
@@ -0,0 +1,125 @@
+package org.airport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Построение проекций одного табло в одном порядке строк.
+ * Порядок самолетов хранится внутри и перестраивается на месте: самолеты, оставшиеся на табло,
+ * идут в прежнем порядке, новые добавляются в конец, поэтому сортировка вставками переставляет
+ * только изменившиеся строки. Наружу выдаются только неизменяемые проекции.
+ */
+class BoardBuilder {
+    private final BoardOrder order;             //порядок строк
+    private final boolean departing;            //табло отправлений или прибытий
+    private final Comparator<Plane> comparator; //сравнение самолетов по их строкам, null - без сортировки
+    private final List<Plane> sorted = new ArrayList<>();   //самолеты на табло в порядке последней проекции
+    private final List<Plane> scratch = new ArrayList<>();  //самолеты, собираемые при перестроении
+    private BoardProjection projection;         //последняя выданная проекция
+
+    /**
+     * Конструктор построителя табло
+     * @param orderIn Порядок строк
+     * @param departingIn Строится ли табло отправлений
+     */
+    BoardBuilder(BoardOrder orderIn, boolean departingIn) {
+        order = orderIn;
+        departing = departingIn;
+        Comparator<BoardRow> rows = orderIn.getComparator();
+        comparator = rows == null ? null : (a, b) -> rows.compare(a.toBoardRow(), b.toBoardRow());
+    }
+
+    /**
+     * Проекция табло для текущей версии аэропорта
+     * @param planes Зарегистрированные самолеты
+     * @param version Текущая версия аэропорта
+     * @param build Номер перестроения, уникальный для аэропорта
+     * @return Проекция из кэша, если версия не менялась, иначе новая
+     */
+    BoardProjection build(PlaneRegistry planes, long version, long build) {
+        if (projection != null && projection.getVersion() == version)
+            return projection;
+        for (int i = 0; i < sorted.size(); i++) {
+            Plane plane = sorted.get(i);
+            //самолет мог взлететь и перейти к новому рейсу
+            if (planes.get(plane.getFlightNumber()) == plane && isOnBoard(plane) && !plane.markBoard(build))
+                scratch.add(plane);
+        }
+        for (int slot = 0; slot < planes.capacity(); slot++) {
+            Plane plane = planes.at(slot);
+            if (plane != null && isOnBoard(plane) && !plane.markBoard(build))
+                scratch.add(plane);
+        }
+        sorted.clear();
+        for (int i = 0; i < scratch.size(); i++)
+            sorted.add(scratch.get(i));
+        scratch.clear();
+        if (comparator != null)
+            sort();
+        projection = publish(version);
+        return projection;
+    }
+
+    /**
+     * Проверка, выводится ли самолет на это табло
+     * @param plane Самолет
+     * @return Выводится ли самолет
+     */
+    private boolean isOnBoard(Plane plane) {
+        return (plane.getStatus() == PlaneStatus.DEPARTING) == departing;
+    }
+
+    /**
+     * Выдача проекции; если строки не изменились, переиспользуется список прошлой проекции
+     * @param version Текущая версия аэропорта
+     * @return Неизменяемая проекция
+     */
+    private BoardProjection publish(long version) {
+        if (projection != null && sameRows(projection.getRows()))
+            return projection.withVersion(version);
+        BoardRow[] rows = new BoardRow[sorted.size()];
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = sorted.get(i).toBoardRow();
+        return new BoardProjection(version, order, Collections.unmodifiableList(Arrays.asList(rows)));
+    }
+
+    /**
+     * Проверка, что строки табло совпадают со строками прошлой проекции
+     * @param rows Строки прошлой проекции
+     * @return Совпадают ли строки и их порядок
+     */
+    private boolean sameRows(List<BoardRow> rows) {
+        if (rows.size() != sorted.size())
+            return false;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) != sorted.get(i).toBoardRow())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Сортировка почти упорядоченных самолетов вставками без создания объектов.
+     * Если самолеты перемешаны сильно, сортировка заканчивается стандартным алгоритмом.
+     */
+    private void sort() {
+        long moves = 8L * sorted.size() + 64;   //допустимое число сдвигов до перехода к общей сортировке
+        for (int i = 1; i < sorted.size(); i++) {
+            Plane plane = sorted.get(i);
+            int j = i - 1;
+            while (j >= 0 && comparator.compare(sorted.get(j), plane) > 0) {
+                sorted.set(j + 1, sorted.get(j));
+                j--;
+                if (--moves < 0) {
+                    sorted.set(j + 1, plane);
+                    sorted.sort(comparator);
+                    return;
+                }
+            }
+            sorted.set(j + 1, plane);
+        }
+    }
+}
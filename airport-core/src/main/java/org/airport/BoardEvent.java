@@ -0,0 +1,91 @@
+package org.airport;
+
+/**
+ * Неизменяемое событие об изменении рейса на табло
+ */
+public final class BoardEvent {
+    private final BoardEventType type;      //тип изменения
+    private final String flightNumber;      //номер рейса
+    private final String city;              //другой аэропорт
+    private final PlaneStatus status;       //статус рейса на момент события
+    private final int runwayNumber;         //номер полосы, 0 - полоса не назначена
+
+    /**
+     * Конструктор события по текущему состоянию самолета
+     * @param typeIn Тип изменения
+     * @param plane Самолет, с которым произошло изменение
+     */
+    BoardEvent(BoardEventType typeIn, Plane plane) {
+        type = typeIn;
+        flightNumber = plane.getFlightNumber();
+        city = plane.getCity();
+        status = plane.getStatus();
+        runwayNumber = plane.isAllocatedRunway() ? plane.getTheRunway().getNumber() : 0;
+    }
+
+    /**
+     * Конструктор события, относящегося ко всему табло, а не к одному рейсу
+     * @param typeIn Тип изменения
+     */
+    BoardEvent(BoardEventType typeIn) {
+        type = typeIn;
+        flightNumber = null;
+        city = null;
+        status = null;
+        runwayNumber = 0;
+    }
+
+    /**
+     * Геттер типа изменения
+     * @return Тип изменения
+     */
+    public BoardEventType getType() {
+        return type;
+    }
+
+    /**
+     * Геттер номера рейса
+     * @return Номер рейса или null для события всего табло
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Геттер связанного с рейсом города
+     * @return Другой аэропорт или null для события всего табло
+     */
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * Геттер статуса рейса
+     * @return Статус рейса на момент события или null для события всего табло
+     */
+    public PlaneStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Геттер номера посадочной полосы
+     * @return Номер полосы или 0, если полоса не назначена
+     */
+    public int getRunwayNumber() {
+        return runwayNumber;
+    }
+
+    /**
+     * Получение информации о событии
+     * @return Информация о событии
+     */
+    @Override
+    public String toString() {
+        if (flightNumber == null)
+            return type.toString();
+        String out = type + "\tномер рейса: " + flightNumber + "\tгород: " + city + "\tстатус: " + status;
+        if (runwayNumber != 0)
+            out = out + "\tполоса: " + runwayNumber;
+        return out;
+    }
+}
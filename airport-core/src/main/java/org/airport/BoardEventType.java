@@ -0,0 +1,14 @@
+package org.airport;
+
+/**
+ * Перечисление для определения типа изменения на табло
+ */
+public enum BoardEventType {
+    REGISTERED,         //рейс зарегистрирован
+    STATUS_CHANGED,     //изменился статус рейса
+    RUNWAY_ASSIGNED,    //рейсу назначена посадочная полоса
+    RUNWAY_RESERVED,    //рейс забронировал полосу на будущее время
+    RESERVATION_CANCELLED,  //бронь рейса отменена или истекла
+    DEPARTED,           //самолет взлетел и исключен из системы
+    REFRESHED           //состояние загружено из файла, табло нужно перечитать целиком
+}
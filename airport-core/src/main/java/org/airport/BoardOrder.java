@@ -0,0 +1,29 @@
+package org.airport;
+
+import java.util.Comparator;
+
+/**
+ * Порядок строк на табло
+ */
+public enum BoardOrder {
+    NONE(null),                                                     //без сортировки
+    FLIGHT(Comparator.comparing(BoardRow::getFlightNumber)),        //по номеру рейса
+    CITY(Comparator.comparing(BoardRow::getCity)
+            .thenComparing(BoardRow::getFlightNumber)),             //по городу
+    STATUS(Comparator.comparing(BoardRow::getStatus)
+            .thenComparing(BoardRow::getFlightNumber));             //по статусу
+
+    private final Comparator<BoardRow> comparator;     //сравнение строк, null - без сортировки
+
+    BoardOrder(Comparator<BoardRow> comparatorIn) {
+        comparator = comparatorIn;
+    }
+
+    /**
+     * Геттер сравнения строк
+     * @return Сравнение строк или null, если сортировка не нужна
+     */
+    Comparator<BoardRow> getComparator() {
+        return comparator;
+    }
+}
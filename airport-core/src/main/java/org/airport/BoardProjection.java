@@ -0,0 +1,59 @@
+package org.airport;
+
+import java.util.List;
+
+/**
+ * Неизменяемая проекция табло для заданной версии аэропорта.
+ * Если версия проекции совпадает с {@link Airport#getVersion()}, табло не изменилось
+ * и перерисовывать его не нужно.
+ */
+public final class BoardProjection {
+    private final long version;         //версия аэропорта, по которой построено табло
+    private final BoardOrder order;     //порядок строк
+    private final List<BoardRow> rows;  //строки табло
+
+    /**
+     * Конструктор проекции
+     * @param versionIn Версия аэропорта
+     * @param orderIn Порядок строк
+     * @param rowsIn Строки табло, защищенные от изменений
+     */
+    BoardProjection(long versionIn, BoardOrder orderIn, List<BoardRow> rowsIn) {
+        version = versionIn;
+        order = orderIn;
+        rows = rowsIn;
+    }
+
+    /**
+     * Та же проекция для новой версии аэропорта, в которой табло не изменилось
+     * @param versionIn Версия аэропорта
+     * @return Проекция с теми же строками
+     */
+    BoardProjection withVersion(long versionIn) {
+        return new BoardProjection(versionIn, order, rows);
+    }
+
+    /**
+     * Геттер версии
+     * @return Версия аэропорта, по которой построено табло
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Геттер порядка строк
+     * @return Порядок строк
+     */
+    public BoardOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Геттер строк табло
+     * @return Строки табло
+     */
+    public List<BoardRow> getRows() {
+        return rows;
+    }
+}
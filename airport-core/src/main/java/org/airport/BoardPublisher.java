@@ -0,0 +1,186 @@
+package org.airport;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+
+/**
+ * Рассылка изменений табло подписчикам.
+ * Доставка идет в отдельном исполнителе с учетом запрошенного подписчиком объема (backpressure).
+ * Пока подписчик не запросил новые события, недоставленные события по одному рейсу
+ * схлопываются до последнего, поэтому медленный подписчик получает актуальное состояние,
+ * а не всю историю изменений. Событие всего табло заменяет все недоставленные события,
+ * так как после него подписчик все равно перечитывает табло целиком.
+ */
+public class BoardPublisher implements Flow.Publisher<BoardEvent> {
+    private final Executor executor;                                            //исполнитель доставки
+    private final List<BoardSubscription> subscriptions = new CopyOnWriteArrayList<>();  //активные подписки
+
+    /**
+     * Конструктор с доставкой в общем пуле потоков
+     */
+    public BoardPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор с заданным исполнителем доставки
+     * @param executorIn Исполнитель, в котором вызываются методы подписчиков
+     */
+    public BoardPublisher(Executor executorIn) {
+        if (executorIn == null)
+            throw new AirportException("Не указан исполнитель для рассылки табло");
+        executor = executorIn;
+    }
+
+    /**
+     * Подписка на изменения табло
+     * @param subscriber Подписчик
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super BoardEvent> subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException("Не указан подписчик табло");
+        BoardSubscription subscription = new BoardSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscription.start();
+    }
+
+    /**
+     * Проверка наличия подписчиков
+     * @return Есть ли хотя бы одна активная подписка
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Рассылка события всем подписчикам
+     * @param event Событие табло
+     */
+    void publish(BoardEvent event) {
+        for (BoardSubscription subscription : subscriptions)
+            subscription.offer(event);
+    }
+
+    /**
+     * Подписка одного подписчика
+     */
+    private class BoardSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super BoardEvent> subscriber;           //подписчик
+        private final Map<String, BoardEvent> pending = new LinkedHashMap<>();  //недоставленные события по рейсам
+        private long demand;                //запрошенное, но не доставленное число событий
+        private boolean draining;           //запущена ли доставка
+        private boolean cancelled;          //отменена ли подписка
+        private Throwable error;            //ошибка, которую нужно передать подписчику
+
+        BoardSubscription(Flow.Subscriber<? super BoardEvent> subscriberIn) {
+            subscriber = subscriberIn;
+        }
+
+        /**
+         * Уведомление подписчика о начале подписки
+         */
+        void start() {
+            executor.execute(() -> {
+                subscriber.onSubscribe(this);
+                schedule();
+            });
+        }
+
+        /**
+         * Постановка события в очередь доставки со схлопыванием по номеру рейса
+         * @param event Событие табло
+         */
+        void offer(BoardEvent event) {
+            synchronized (this) {
+                if (cancelled)
+                    return;
+                if (event.getFlightNumber() == null)
+                    pending.clear();
+                pending.remove(event.getFlightNumber());    //событие встает в конец очереди
+                pending.put(event.getFlightNumber(), event);
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (cancelled)
+                    return;
+                if (n <= 0)
+                    error = new IllegalArgumentException("Запрошено неположительное число событий: " + n);
+                else
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                pending.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Запуск доставки, если есть что и кому доставлять
+         */
+        private void schedule() {
+            synchronized (this) {
+                if (draining || cancelled || (error == null && (demand == 0 || pending.isEmpty())))
+                    return;
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        /**
+         * Последовательная доставка накопленных событий в пределах запрошенного объема
+         */
+        private void drain() {
+            while (true) {
+                BoardEvent next;
+                Throwable failure;
+                synchronized (this) {
+                    failure = error;
+                    if (failure != null) {
+                        cancelled = true;
+                        pending.clear();
+                        next = null;
+                    }
+                    else if (cancelled || demand == 0 || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    else {
+                        Iterator<BoardEvent> it = pending.values().iterator();
+                        next = it.next();
+                        it.remove();
+                        demand--;
+                    }
+                }
+                if (failure != null) {
+                    subscriptions.remove(this);
+                    subscriber.onError(failure);
+                    return;
+                }
+                try {
+                    subscriber.onNext(next);
+                } catch (Throwable t) {
+                    cancel();
+                    subscriber.onError(t);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.airport;
+
+/**
+ * Заранее отформатированная неизменяемая строка табло.
+ * Строка создается заново только после изменения самолета, поэтому проекции разных
+ * версий разделяют строки рейсов, которые между версиями не менялись.
+ */
+public final class BoardRow {
+    private final String flightNumber;      //номер рейса
+    private final String city;              //другой аэропорт
+    private final PlaneStatus status;       //статус рейса
+    private final String runwayText;        //номер полосы для вывода, пустая строка - полоса не назначена
+
+    /**
+     * Конструктор строки табло по текущему состоянию самолета
+     * @param plane Самолет
+     */
+    BoardRow(Plane plane) {
+        flightNumber = plane.getFlightNumber();
+        city = plane.getCity();
+        status = plane.getStatus();
+        runwayText = plane.isAllocatedRunway() ? plane.getTheRunway().getNumberText() : "";
+    }
+
+    /**
+     * Геттер номера рейса
+     * @return Номер рейса
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Геттер связанного с рейсом города
+     * @return Другой аэропорт
+     */
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * Геттер названия статуса
+     * @return Статус рейса для вывода
+     */
+    public String getStatusName() {
+        return status.toString();
+    }
+
+    /**
+     * Геттер номера полосы для вывода
+     * @return Номер полосы или пустая строка, если полоса не назначена
+     */
+    public String getRunwayText() {
+        return runwayText;
+    }
+
+    /**
+     * Геттер статуса рейса
+     * @return Статус рейса
+     */
+    PlaneStatus getStatus() {
+        return status;
+    }
+}
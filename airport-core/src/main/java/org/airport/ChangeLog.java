@@ -0,0 +1,308 @@
+package org.airport;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Журнал изменений аэропорта с момента последней контрольной точки.
+ * Аэропорт дописывает в журнал изменения в своем потоке, фоновый поток забирает
+ * накопленное целиком. Повторные изменения одного рейса схлопываются до последнего,
+ * поэтому объем журнала зависит от числа измененных рейсов, а не от их общего числа.
+ * Аэропорт выполняет каждую команду целиком под монитором журнала, поэтому все записи
+ * одной команды попадают в один блок.
+ */
+class ChangeLog {
+    private Map<String, PlaneRecord> planes = new LinkedHashMap<>();  //измененные рейсы, null - рейс удален
+    private List<String> queueOrder;                                  //очередь целиком после перестановки, null - не было
+    private List<String> queueFlights = new ArrayList<>();            //рейсы, вставшие в очередь или покинувшие ее
+    private BitSet queueAdded = new BitSet();                         //признак постановки в очередь для каждой операции
+    private Map<Integer, RunwayRecord> runways = new LinkedHashMap<>();   //измененные полосы по номерам
+    private List<String> reservationFlights = new ArrayList<>();      //рейсы, бронировавшие полосу или снявшие бронь
+    private List<Reservation> reservations = new ArrayList<>();       //новая бронь для каждой операции, null - снятие
+
+    /**
+     * Запись изменения самолета
+     * @param record Новое состояние самолета
+     */
+    synchronized void planeChanged(PlaneRecord record) {
+        planes.put(record.getFlightNumber(), record);
+    }
+
+    /**
+     * Запись исключения самолета из системы
+     * @param flightIn Номер рейса
+     */
+    synchronized void planeRemoved(String flightIn) {
+        planes.put(flightIn, null);
+    }
+
+    /**
+     * Запись постановки самолета в очередь на посадку
+     * @param flightIn Номер рейса
+     */
+    synchronized void queued(String flightIn) {
+        queueAdded.set(queueFlights.size());
+        queueFlights.add(flightIn);
+    }
+
+    /**
+     * Запись выхода самолета из очереди на посадку
+     * @param flightIn Номер рейса
+     */
+    synchronized void dequeued(String flightIn) {
+        queueFlights.add(flightIn);
+    }
+
+    /**
+     * Запись перестановки очереди на посадку.
+     * Порядок очереди после перестановки заменяет все более ранние операции с очередью,
+     * поэтому журнал хранит его один раз, сколько бы перестановок ни было между контрольными точками.
+     * @param order Очередь после перестановки
+     */
+    synchronized void queueReordered(List<String> order) {
+        queueOrder = new ArrayList<>(order);
+        queueFlights.clear();
+        queueAdded.clear();
+    }
+
+    /**
+     * Запись изменения посадочной полосы
+     * @param record Новое состояние полосы
+     */
+    synchronized void runwayChanged(RunwayRecord record) {
+        runways.put(record.getNumber(), record);
+    }
+
+    /**
+     * Запись брони посадочной полосы
+     * @param reservation Бронь
+     */
+    synchronized void reserved(Reservation reservation) {
+        reservationFlights.add(reservation.getFlightNumber());
+        reservations.add(reservation);
+    }
+
+    /**
+     * Запись снятия брони
+     * @param flightIn Номер рейса
+     */
+    synchronized void cancelled(String flightIn) {
+        reservationFlights.add(flightIn);
+        reservations.add(null);
+    }
+
+    /**
+     * Забирает накопленные изменения и начинает журнал заново
+     * @return Изменения с момента предыдущего вызова
+     */
+    synchronized ChangeLog drain() {
+        ChangeLog out = new ChangeLog();
+        out.planes = planes;
+        out.queueOrder = queueOrder;
+        out.queueFlights = queueFlights;
+        out.queueAdded = queueAdded;
+        out.runways = runways;
+        out.reservationFlights = reservationFlights;
+        out.reservations = reservations;
+        planes = new LinkedHashMap<>();
+        queueOrder = null;
+        queueFlights = new ArrayList<>();
+        queueAdded = new BitSet();
+        runways = new LinkedHashMap<>();
+        reservationFlights = new ArrayList<>();
+        reservations = new ArrayList<>();
+        return out;
+    }
+
+    /**
+     * Возврат в журнал изменений, которые не удалось записать.
+     * Возвращенные изменения старше накопленных за время записи, поэтому они ставятся перед ними:
+     * для рейсов и полос побеждает более новое значение, операции с очередью и бронями
+     * сохраняют исходный порядок.
+     * @param batch Изменения, ранее полученные из {@link #drain()}
+     */
+    synchronized void requeue(ChangeLog batch) {
+        Map<String, PlaneRecord> mergedPlanes = new LinkedHashMap<>(batch.planes);
+        mergedPlanes.putAll(planes);
+        planes = mergedPlanes;
+
+        if (queueOrder == null) {
+            int older = batch.queueFlights.size();
+            BitSet mergedAdded = (BitSet) batch.queueAdded.clone();
+            for (int i = queueAdded.nextSetBit(0); i >= 0; i = queueAdded.nextSetBit(i + 1))
+                mergedAdded.set(older + i);
+            List<String> mergedFlights = new ArrayList<>(batch.queueFlights);
+            mergedFlights.addAll(queueFlights);
+            queueOrder = batch.queueOrder;
+            queueFlights = mergedFlights;
+            queueAdded = mergedAdded;
+        }
+
+        Map<Integer, RunwayRecord> mergedRunways = new LinkedHashMap<>(batch.runways);
+        mergedRunways.putAll(runways);
+        runways = mergedRunways;
+
+        List<String> mergedReservationFlights = new ArrayList<>(batch.reservationFlights);
+        mergedReservationFlights.addAll(reservationFlights);
+        List<Reservation> mergedReservations = new ArrayList<>(batch.reservations);
+        mergedReservations.addAll(reservations);
+        reservationFlights = mergedReservationFlights;
+        reservations = mergedReservations;
+    }
+
+    /**
+     * Проверка наличия изменений
+     * @return Пуст ли журнал
+     */
+    synchronized boolean isEmpty() {
+        return planes.isEmpty() && queueOrder == null && queueFlights.isEmpty() && runways.isEmpty()
+                && reservationFlights.isEmpty();
+    }
+
+    /**
+     * Запись изменений в поток в виде одного блока
+     * @param out Поток вывода
+     * @throws IOException Ошибка при записи
+     */
+    synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(planes.size());
+        for (Map.Entry<String, PlaneRecord> entry : planes.entrySet()) {
+            PlaneRecord record = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeBoolean(record != null);
+            if (record != null) {
+                out.writeUTF(record.getOrigin());
+                out.writeUTF(record.getCity());
+                out.writeByte(record.getStatus().ordinal());
+                out.writeInt(record.getRunwayNumber());
+                out.writeByte(record.getWakeCategory().ordinal());
+                for (PlaneStatus status : PlaneStatus.values())
+                    out.writeLong(record.getStatusTime(status));
+            }
+        }
+        out.writeInt(queueOrder == null ? -1 : queueOrder.size());
+        if (queueOrder != null) {
+            for (String flight : queueOrder)
+                out.writeUTF(flight);
+        }
+        out.writeInt(queueFlights.size());
+        for (int i = 0; i < queueFlights.size(); i++) {
+            out.writeBoolean(queueAdded.get(i));
+            out.writeUTF(queueFlights.get(i));
+        }
+        out.writeInt(runways.size());
+        for (RunwayRecord runway : runways.values()) {
+            out.writeInt(runway.getNumber());
+            out.writeBoolean(runway.isAllocated());
+            out.writeByte(runway.getLastCategory() == null ? -1 : runway.getLastCategory().ordinal());
+            out.writeLong(runway.getLastLandingAt());
+        }
+        out.writeInt(reservationFlights.size());
+        for (int i = 0; i < reservationFlights.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            out.writeUTF(reservationFlights.get(i));
+            out.writeBoolean(reservation != null);
+            if (reservation != null) {
+                out.writeInt(reservation.getRunwayNumber());
+                out.writeLong(reservation.getStart());
+                out.writeLong(reservation.getEnd());
+            }
+        }
+    }
+
+    /**
+     * Чтение одного блока изменений и применение его к состоянию
+     * @param in Поток ввода
+     * @param planesIn Самолеты, к которым применяются изменения
+     * @param circlingQ Очередь на посадку, к которой применяются изменения
+     * @param runwaysIn Состояние полос по номерам, к которому применяются изменения
+     * @param reservationsIn Брони полос, к которым применяются изменения
+     * @throws IOException Ошибка при чтении, в том числе недописанный блок
+     */
+    static void applyFrom(DataInputStream in, Map<String, PlaneRecord> planesIn, List<String> circlingQ,
+                          RunwayRecord[] runwaysIn, List<Reservation> reservationsIn) throws IOException {
+        PlaneStatus[] statuses = PlaneStatus.values();
+        Map<String, PlaneRecord> changedPlanes = new LinkedHashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String flight = in.readUTF();
+            if (in.readBoolean()) {
+                String origin = in.readUTF();
+                String city = in.readUTF();
+                PlaneStatus status = statuses[in.readByte()];
+                int runway = in.readInt();
+                WakeCategory wakeCategory = WakeCategory.values()[in.readByte()];
+                long[] times = new long[statuses.length];
+                for (int j = 0; j < times.length; j++)
+                    times[j] = in.readLong();
+                changedPlanes.put(flight, new PlaneRecord(flight, origin, city, status, runway, wakeCategory, times));
+            }
+            else
+                changedPlanes.put(flight, null);
+        }
+        List<String> queueOrderIn = null;
+        count = in.readInt();
+        if (count >= 0) {
+            queueOrderIn = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                queueOrderIn.add(in.readUTF());
+        }
+        List<String> queueFlightsIn = new ArrayList<>();
+        BitSet queueAddedIn = new BitSet();
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            queueAddedIn.set(i, in.readBoolean());
+            queueFlightsIn.add(in.readUTF());
+        }
+        count = in.readInt();
+        RunwayRecord[] runwayValues = new RunwayRecord[count];
+        for (int i = 0; i < count; i++) {
+            int number = in.readInt();
+            boolean allocated = in.readBoolean();
+            int category = in.readByte();
+            runwayValues[i] = new RunwayRecord(number, allocated,
+                    category < 0 ? null : WakeCategory.values()[category], in.readLong());
+        }
+        count = in.readInt();
+        List<String> reservationFlightsIn = new ArrayList<>();
+        List<Reservation> reservationValues = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String flight = in.readUTF();
+            reservationFlightsIn.add(flight);
+            reservationValues.add(in.readBoolean()
+                    ? new Reservation(flight, in.readInt(), in.readLong(), in.readLong()) : null);
+        }
+
+        //блок прочитан целиком, только теперь его можно применить
+        for (Map.Entry<String, PlaneRecord> entry : changedPlanes.entrySet()) {
+            if (entry.getValue() == null)
+                planesIn.remove(entry.getKey());
+            else
+                planesIn.put(entry.getKey(), entry.getValue());
+        }
+        if (queueOrderIn != null) {
+            circlingQ.clear();
+            circlingQ.addAll(queueOrderIn);
+        }
+        for (int i = 0; i < queueFlightsIn.size(); i++) {
+            if (queueAddedIn.get(i))
+                circlingQ.add(queueFlightsIn.get(i));
+            else
+                circlingQ.remove(queueFlightsIn.get(i));
+        }
+        for (RunwayRecord runway : runwayValues)
+            runwaysIn[runway.getNumber() - 1] = runway;
+        for (int i = 0; i < reservationFlightsIn.size(); i++) {
+            String flight = reservationFlightsIn.get(i);
+            reservationsIn.removeIf(reservation -> reservation.getFlightNumber().equals(flight));
+            if (reservationValues.get(i) != null)
+                reservationsIn.add(reservationValues.get(i));
+        }
+    }
+}
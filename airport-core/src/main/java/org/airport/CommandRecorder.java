@@ -0,0 +1,82 @@
+package org.airport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Запись команд аэропорта в текстовый файл для последующего воспроизведения.
+ * Каждая строка - одна команда: операция, номер рейса и аргументы через табуляцию.
+ * Первая строка задает число посадочных полос. Каждая команда, кроме числа полос, записывается
+ * вместе с текущим временем последним аргументом, поэтому при воспроизведении совпадают не только
+ * состояния рейсов, но и время перехода в каждый статус. Символы табуляции, перевода строки и
+ * обратной косой черты в аргументах экранируются.
+ */
+public class CommandRecorder implements AutoCloseable {
+    static final String RUNWAYS = "RUNWAYS";            //число посадочных полос
+    static final String REGISTER = "REGISTER";          //регистрация рейса
+    static final String ARRIVE = "ARRIVE";              //запрос на посадку
+    static final String LAND = "LAND";                  //посадка
+    static final String BOARD = "BOARD";                //начало посадки пассажиров
+    static final String TAKE_OFF = "TAKEOFF";           //взлет
+    static final String RESERVE = "RESERVE";            //бронь посадочной полосы
+    static final String CANCEL = "CANCEL";              //отмена брони
+
+    private final Writer writer;                        //файл команд
+
+    /**
+     * Конструктор
+     * @param fileName Имя файла команд, перезаписывается
+     * @throws IOException Ошибка при открытии файла
+     */
+    public CommandRecorder(String fileName) throws IOException {
+        writer = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Запись команды
+     * @param operation Операция
+     * @param args Номер рейса и аргументы
+     * @throws AirportException Ошибка при записи файла
+     */
+    synchronized void record(String operation, String... args) throws AirportException {
+        try {
+            writer.write(operation);
+            for (String arg : args) {
+                writer.write('\t');
+                writeEscaped(arg);
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new AirportException("Ошибка при записи команды " + operation);
+        }
+    }
+
+    /**
+     * Запись буферизованных команд на диск
+     * @throws IOException Ошибка при записи файла
+     */
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeEscaped(String arg) throws IOException {
+        for (int i = 0; i < arg.length(); i++) {
+            char c = arg.charAt(i);
+            switch (c) {
+                case '\\':  writer.write("\\\\"); break;
+                case '\t':  writer.write("\\t");  break;
+                case '\n':  writer.write("\\n");  break;
+                case '\r':  writer.write("\\r");  break;
+                default:    writer.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package org.airport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Воспроизведение записанных команд без графического интерфейса.
+ * Файл команд читается потоково через канал фиксированными блоками, поэтому размер
+ * файла не ограничен памятью. Команды, которые при записи завершились ошибкой,
+ * должны завершиться ошибкой и при воспроизведении, поэтому ошибки аэропорта считаются,
+ * но не прерывают воспроизведение. Неизвестная команда или аргумент, который не удается разобрать,
+ * прерывают воспроизведение с указанием номера строки.
+ */
+public class CommandReplay {
+    private static final int BUFFER_SIZE = 1 << 16;     //размер блока чтения
+
+    private Airport airport;        //аэропорт, к которому применяются команды
+    private long operations;        //число выполненных команд
+    private long failures;          //число команд, завершившихся ошибкой аэропорта
+    private long line;              //номер текущей строки файла команд
+
+    /**
+     * Конструктор для файла, начинающегося с числа посадочных полос
+     */
+    public CommandReplay() {
+        airport = null;
+    }
+
+    /**
+     * Конструктор с начальным состоянием аэропорта
+     * @param airportIn Аэропорт, к которому применяются команды
+     */
+    public CommandReplay(Airport airportIn) {
+        airport = airportIn;
+    }
+
+    /**
+     * Воспроизведение файла команд
+     * @param commands Файл команд
+     * @throws IOException Ошибка при чтении файла
+     * @throws AirportException Неизвестная команда, ошибка в аргументах или команда до создания аэропорта
+     */
+    public void replay(Path commands) throws IOException, AirportException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean escape = false;
+        line = 0;
+        try (FileChannel channel = FileChannel.open(commands, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                CoderResult result = decoder.decode(bytes, chars, eof);
+                if (result.isError())
+                    result.throwException();
+                if (eof)
+                    decoder.flush(chars);
+                bytes.compact();
+                chars.flip();
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (escape) {
+                        field.append(c == 't' ? '\t' : c == 'n' ? '\n' : c == 'r' ? '\r' : c);
+                        escape = false;
+                    }
+                    else if (c == '\\')
+                        escape = true;
+                    else if (c == '\t') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    }
+                    else if (c == '\n') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                        line++;
+                        execute(fields);
+                        fields.clear();
+                    }
+                    else
+                        field.append(c);
+                }
+                chars.clear();
+            }
+        }
+        if (field.length() > 0 || !fields.isEmpty()) {
+            fields.add(field.toString());
+            line++;
+            execute(fields);
+        }
+    }
+
+    /**
+     * Геттер аэропорта
+     * @return Аэропорт после воспроизведения
+     */
+    public Airport getAirport() {
+        return airport;
+    }
+
+    /**
+     * Геттер числа выполненных команд
+     * @return Число команд
+     */
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * Геттер числа команд, завершившихся ошибкой аэропорта
+     * @return Число ошибок
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Выполнение одной команды.
+     * Аргументы разбираются до обращения к аэропорту, поэтому ошибка разбора не смешивается
+     * с ошибкой аэропорта.
+     * @param fields Операция и аргументы
+     * @throws AirportException Неизвестная команда, ошибка в аргументах или команда до создания аэропорта
+     */
+    private void execute(List<String> fields) throws AirportException {
+        String operation = fields.get(0);
+        if (operation.isEmpty())
+            return;
+        if (operation.equals(CommandRecorder.RUNWAYS)) {
+            if (airport == null)
+                airport = new Airport(parseInt(argument(fields, 1)));
+            return;
+        }
+        if (airport == null)
+            throw new AirportException("Строка " + line + ": команда " + operation
+                    + " до задания числа посадочных полос");
+        String flight = argument(fields, 1);
+        switch (operation) {
+            case CommandRecorder.REGISTER: {
+                String city = argument(fields, 2);
+                WakeCategory category = fields.size() > 3 ? parseCategory(fields.get(3)) : WakeCategory.MEDIUM;
+                long now = time(fields, 4);
+                apply(() -> airport.registerFlight(flight, city, category, now));
+                break;
+            }
+            case CommandRecorder.ARRIVE: {
+                long now = time(fields, 2);
+                apply(() -> airport.arriveAtAirport(flight, now));
+                break;
+            }
+            case CommandRecorder.LAND: {
+                int runway = parseInt(argument(fields, 2));
+                long now = time(fields, 3);
+                apply(() -> airport.landAtAirport(flight, runway, now));
+                break;
+            }
+            case CommandRecorder.BOARD: {
+                String destination = argument(fields, 2);
+                long now = time(fields, 3);
+                apply(() -> airport.readyForBoarding(flight, destination, now));
+                break;
+            }
+            case CommandRecorder.TAKE_OFF: {
+                long now = time(fields, 2);
+                apply(() -> airport.takeOff(flight, now));
+                break;
+            }
+            case CommandRecorder.RESERVE: {
+                long from = parseLong(argument(fields, 2));
+                long to = parseLong(argument(fields, 3));
+                long now = time(fields, 4);
+                apply(() -> airport.reserveLanding(flight, from, to, now));
+                break;
+            }
+            case CommandRecorder.CANCEL: {
+                long now = time(fields, 2);
+                apply(() -> airport.cancelReservation(flight, now));
+                break;
+            }
+            default:
+                throw new AirportException("Строка " + line + ": неизвестная команда " + operation);
+        }
+    }
+
+    /**
+     * Выполнение разобранной команды над аэропортом с подсчетом ошибок аэропорта
+     * @param command Команда
+     */
+    private void apply(Runnable command) {
+        operations++;
+        try {
+            command.run();
+        } catch (AirportException ae) {
+            failures++;
+        }
+    }
+
+    /**
+     * Обязательный аргумент команды
+     * @param fields Операция и аргументы
+     * @param index Позиция аргумента
+     * @return Аргумент
+     * @throws AirportException Аргумента нет в строке
+     */
+    private String argument(List<String> fields, int index) throws AirportException {
+        if (fields.size() <= index)
+            throw new AirportException("Строка " + line + ": не хватает аргументов команды " + fields.get(0));
+        return fields.get(index);
+    }
+
+    /**
+     * Время выполнения команды
+     * @param fields Операция и аргументы
+     * @param index Позиция времени среди аргументов
+     * @return Записанное время или 0 для записей без времени
+     * @throws AirportException Время не является числом
+     */
+    private long time(List<String> fields, int index) throws AirportException {
+        return fields.size() > index ? parseLong(fields.get(index)) : 0;
+    }
+
+    private int parseInt(String value) throws AirportException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new AirportException("Строка " + line + ": неверное число " + value);
+        }
+    }
+
+    private long parseLong(String value) throws AirportException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new AirportException("Строка " + line + ": неверное число " + value);
+        }
+    }
+
+    private WakeCategory parseCategory(String value) throws AirportException {
+        try {
+            return WakeCategory.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new AirportException("Строка " + line + ": неизвестная категория турбулентности " + value);
+        }
+    }
+
+    /**
+     * Запуск воспроизведения из командной строки.
+     * Аргументы: файл команд, затем необязательно -initial файл начального состояния,
+     * -expect файл ожидаемого конечного состояния и -repeat число повторов для замера скорости.
+     * @param args Аргументы командной строки
+     * @throws Exception Ошибка при чтении файлов
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Использование: CommandReplay <команды> [-initial <состояние>]"
+                    + " [-expect <состояние>] [-repeat <n>]");
+            System.exit(2);
+        }
+        String initial = null, expect = null;
+        int repeat = 1;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-initial": initial = args[i + 1]; break;
+                case "-expect":  expect = args[i + 1]; break;
+                case "-repeat":  repeat = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.err.println("Неизвестный параметр " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        CommandReplay replay = null;
+        long operations = 0, nanos = 0;
+        for (int run = 0; run < repeat; run++) {
+            replay = initial == null ? new CommandReplay() : new CommandReplay(new Airport(initial));
+            long start = System.nanoTime();
+            replay.replay(Paths.get(args[0]));
+            nanos += System.nanoTime() - start;
+            operations += replay.getOperations();
+        }
+        System.out.printf("команд: %d, ошибок: %d, время: %.1f мс, команд/с: %.0f%n", replay.getOperations(),
+                replay.getFailures(), nanos / 1e6, operations / (nanos / 1e9));
+
+        if (expect != null) {
+            boolean same = replay.getAirport() != null
+                    && replay.getAirport().snapshot().sameState(new Airport(expect).snapshot());
+            System.out.println(same ? "Конечное состояние совпадает" : "Конечное состояние отличается");
+            if (!same)
+                System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package org.airport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Архив завершенных рейсов на диске с хранением по колонкам.
+ * Рейсы копятся в памяти и записываются сегментами по заданному числу строк. В сегменте
+ * каждая колонка сжата отдельно: строки заменены индексами в словаре сегмента, время взлета
+ * хранится разностью с предыдущей строкой, остальные отметки времени - разностью со временем
+ * взлета той же строки. В заголовке сегмента записан диапазон времени взлета, поэтому при
+ * выборке за период лишние сегменты не читаются, а подсчет читает только колонку времени взлета.
+ * <p>Рейсы, еще не попавшие в сегмент, дописываются в журнал каталога, поэтому после сбоя
+ * они не теряются: при открытии архива журнал читается заново. В заголовке журнала указан
+ * номер сегмента, в который пойдут его рейсы; если такой сегмент уже есть, журнал устарел.
+ */
+public class FlightArchive implements AutoCloseable {
+    private static final int MAGIC = 0x41464131;        //признак файла сегмента
+    private static final String SEGMENT_PREFIX = "segment-";   //начало имени файла сегмента
+    private static final String SEGMENT_SUFFIX = ".col";       //расширение файла сегмента
+    private static final String JOURNAL_NAME = "pending.jnl";  //журнал рейсов, не записанных в сегмент
+
+    private static final int COL_FLIGHT = 0;            //номер рейса
+    private static final int COL_ORIGIN = 1;            //аэропорт отправления
+    private static final int COL_DESTINATION = 2;       //аэропорт назначения
+    private static final int COL_RUNWAY = 3;            //посадочная полоса
+    private static final int COL_DEPARTED = 4;          //время взлета
+    private static final int COL_REGISTERED = 5;        //время регистрации
+    private static final int COL_ARRIVED = 6;           //время запроса на посадку
+    private static final int COL_LANDED = 7;            //время приземления
+    private static final int COL_BOARDING = 8;          //время начала посадки пассажиров
+    private static final int COLUMNS = 9;               //число колонок
+
+    private final File directory;                       //каталог архива
+    private final int segmentSize;                      //число строк в сегменте
+    private final List<ArchivedFlight> buffer;          //еще не записанные рейсы
+    private final FileChannel journal;                  //журнал рейсов из buffer
+    private int nextSegment;                            //номер следующего сегмента
+
+    /**
+     * Конструктор архива
+     * @param directoryName Каталог архива, создается при необходимости
+     * @param segmentSizeIn Число рейсов в одном сегменте
+     * @throws IOException Ошибка при создании каталога или чтении журнала
+     * @throws AirportException Неверный размер сегмента
+     */
+    public FlightArchive(String directoryName, int segmentSizeIn) throws IOException, AirportException {
+        if (segmentSizeIn < 1)
+            throw new AirportException("Неверный размер сегмента архива " + segmentSizeIn);
+        directory = new File(directoryName);
+        Files.createDirectories(directory.toPath());
+        segmentSize = segmentSizeIn;
+        buffer = new ArrayList<>(segmentSizeIn);
+        File[] segments = listSegments();
+        nextSegment = segments.length == 0 ? 0 : segmentNumber(segments[segments.length - 1]) + 1;
+        Path journalPath = new File(directory, JOURNAL_NAME).toPath();
+        long journalLength = Files.exists(journalPath) ? recover(journalPath) : -1;
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (journalLength < 0)
+            resetJournal();
+        else
+            journal.truncate(journalLength);
+    }
+
+    /**
+     * Добавление завершенного рейса.
+     * Рейс принят, если метод завершился без ошибки: к этому моменту он уже записан в журнал.
+     * Ошибка записи заполненного сегмента не отменяет приема, сегмент будет записан
+     * при следующем добавлении или вызове {@link #flush()}.
+     * @param flight Запись о рейсе
+     * @throws IOException Ошибка при записи в журнал, рейс не принят
+     */
+    public synchronized void append(ArchivedFlight flight) throws IOException {
+        writeJournal(flight);
+        buffer.add(flight);
+        if (buffer.size() >= segmentSize) {
+            try {
+                flush();
+            } catch (IOException e) {
+                //рейсы остаются в журнале, запись сегмента будет повторена
+            }
+        }
+    }
+
+    /**
+     * Запись накопленных рейсов в новый сегмент
+     * @throws IOException Ошибка при записи сегмента
+     */
+    public synchronized void flush() throws IOException {
+        if (buffer.isEmpty())
+            return;
+        File segment = new File(directory, String.format("%s%08d%s", SEGMENT_PREFIX, nextSegment, SEGMENT_SUFFIX));
+        File temp = new File(directory, segment.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            writeSegment(out, buffer);
+        }
+        Files.move(temp.toPath(), segment.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        nextSegment++;
+        buffer.clear();
+        resetJournal();
+    }
+
+    /**
+     * Запись оставшихся рейсов при закрытии архива
+     * @throws IOException Ошибка при записи сегмента
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Выборка рейсов, взлетевших в заданный период. Читаются только записанные сегменты.
+     * @param fromMillis Начало периода включительно, мс
+     * @param toMillis Конец периода не включительно, мс
+     * @param consumer Обработчик найденных рейсов
+     * @throws IOException Ошибка при чтении сегмента
+     */
+    public void scan(long fromMillis, long toMillis, Consumer<ArchivedFlight> consumer) throws IOException {
+        for (File file : listSegments()) {
+            try (DataInputStream in = openSegment(file)) {
+                long min = in.readLong();
+                long max = in.readLong();
+                if (max < fromMillis || min >= toMillis)
+                    continue;
+                int rows = in.readInt();
+                String[] flights = readStrings(readColumn(in), rows);
+                String[] origins = readStrings(readColumn(in), rows);
+                String[] destinations = readStrings(readColumn(in), rows);
+                long[] runways = readLongs(readColumn(in), rows);
+                long[] departed = readDeltas(readColumn(in), rows);
+                long[][] times = new long[COLUMNS - COL_REGISTERED][];
+                for (int c = 0; c < times.length; c++)
+                    times[c] = readLongs(readColumn(in), rows);
+                for (int i = 0; i < rows; i++) {
+                    if (departed[i] < fromMillis || departed[i] >= toMillis)
+                        continue;
+                    consumer.accept(new ArchivedFlight(flights[i], origins[i], destinations[i], (int) runways[i],
+                            departed[i] + times[COL_REGISTERED - COL_REGISTERED][i],
+                            departed[i] + times[COL_ARRIVED - COL_REGISTERED][i],
+                            departed[i] + times[COL_LANDED - COL_REGISTERED][i],
+                            departed[i] + times[COL_BOARDING - COL_REGISTERED][i], departed[i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Подсчет рейсов, взлетевших в заданный период. Читается только колонка времени взлета.
+     * @param fromMillis Начало периода включительно, мс
+     * @param toMillis Конец периода не включительно, мс
+     * @return Число рейсов
+     * @throws IOException Ошибка при чтении сегмента
+     */
+    public long count(long fromMillis, long toMillis) throws IOException {
+        long count = 0;
+        for (File file : listSegments()) {
+            try (DataInputStream in = openSegment(file)) {
+                long min = in.readLong();
+                long max = in.readLong();
+                int rows = in.readInt();
+                if (max < fromMillis || min >= toMillis)
+                    continue;
+                if (min >= fromMillis && max < toMillis) {
+                    count += rows;
+                    continue;
+                }
+                for (int c = 0; c < COL_DEPARTED; c++)
+                    skipColumn(in);
+                for (long departed : readDeltas(readColumn(in), rows)) {
+                    if (departed >= fromMillis && departed < toMillis)
+                        count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Чтение рейсов из журнала, оставшегося после сбоя.
+     * Недописанная последняя запись отбрасывается; журнал уже записанного сегмента не читается.
+     * @param journalPath Файл журнала
+     * @return Длина журнала без недописанной записи или -1, если журнал надо начать заново
+     * @throws IOException Ошибка при чтении журнала
+     */
+    private long recover(Path journalPath) throws IOException {
+        long length = -1;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(journalPath)))) {
+            if (in.readInt() != nextSegment)
+                return -1;
+            length = Integer.BYTES;
+            while (true) {
+                byte[] record = new byte[in.readInt()];
+                in.readFully(record);
+                DataInputStream row = new DataInputStream(new ByteArrayInputStream(record));
+                buffer.add(new ArchivedFlight(row.readUTF(), row.readUTF(), row.readUTF(), row.readInt(),
+                        row.readLong(), row.readLong(), row.readLong(), row.readLong(), row.readLong()));
+                length += Integer.BYTES + record.length;
+            }
+        } catch (EOFException e) {
+            //конец журнала или недописанная при сбое последняя запись
+        }
+        return length;
+    }
+
+    /**
+     * Очистка журнала и запись заголовка с номером следующего сегмента
+     * @throws IOException Ошибка при записи журнала
+     */
+    private void resetJournal() throws IOException {
+        journal.truncate(0);
+        journal.position(0);
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).putInt(0, nextSegment);
+        while (header.hasRemaining())
+            journal.write(header);
+    }
+
+    /**
+     * Дописывание рейса в журнал одной записью с длиной.
+     * При ошибке журнал обрезается до прежней длины, чтобы за недописанной записью не оказались новые.
+     * @param flight Запись о рейсе
+     * @throws IOException Ошибка при записи журнала
+     */
+    private void writeJournal(ArchivedFlight flight) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeUTF(flight.getFlightNumber());
+            out.writeUTF(flight.getOrigin());
+            out.writeUTF(flight.getDestination());
+            out.writeInt(flight.getRunwayNumber());
+            out.writeLong(flight.getRegisteredAt());
+            out.writeLong(flight.getArrivedAt());
+            out.writeLong(flight.getLandedAt());
+            out.writeLong(flight.getBoardingAt());
+            out.writeLong(flight.getDepartedAt());
+        }
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+        long size = journal.size();
+        try {
+            journal.position(size);
+            while (record.hasRemaining())
+                journal.write(record);
+        } catch (IOException e) {
+            try {
+                journal.truncate(size);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Список файлов сегментов по порядку записи
+     * @return Файлы сегментов
+     */
+    private File[] listSegments() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX)
+                && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null)
+            return new File[0];
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static int segmentNumber(File file) {
+        String name = file.getName();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Открывает сегмент и проверяет его признак
+     * @param file Файл сегмента
+     * @return Поток, установленный на диапазон времени взлета
+     * @throws IOException Ошибка при чтении или файл не является сегментом
+     */
+    private static DataInputStream openSegment(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        if (in.readInt() != MAGIC) {
+            in.close();
+            throw new IOException("Файл " + file + " не является сегментом архива");
+        }
+        return in;
+    }
+
+    /**
+     * Запись сегмента: заголовок и колонки
+     * @param out Поток вывода
+     * @param rows Рейсы сегмента
+     * @throws IOException Ошибка при записи
+     */
+    private static void writeSegment(DataOutputStream out, List<ArchivedFlight> rows) throws IOException {
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (ArchivedFlight row : rows) {
+            min = Math.min(min, row.getDepartedAt());
+            max = Math.max(max, row.getDepartedAt());
+        }
+        out.writeInt(MAGIC);
+        out.writeLong(min);
+        out.writeLong(max);
+        out.writeInt(rows.size());
+
+        ColumnWriter flights = new ColumnWriter(true);
+        ColumnWriter origins = new ColumnWriter(true);
+        ColumnWriter destinations = new ColumnWriter(true);
+        ColumnWriter runways = new ColumnWriter(false);
+        ColumnWriter departed = new ColumnWriter(false);
+        ColumnWriter[] times = new ColumnWriter[COLUMNS - COL_REGISTERED];
+        for (int c = 0; c < times.length; c++)
+            times[c] = new ColumnWriter(false);
+        long previous = 0;
+        for (ArchivedFlight row : rows) {
+            flights.writeString(row.getFlightNumber());
+            origins.writeString(row.getOrigin());
+            destinations.writeString(row.getDestination());
+            runways.writeVarLong(row.getRunwayNumber());
+            departed.writeVarLong(row.getDepartedAt() - previous);
+            previous = row.getDepartedAt();
+            times[COL_REGISTERED - COL_REGISTERED].writeVarLong(row.getRegisteredAt() - row.getDepartedAt());
+            times[COL_ARRIVED - COL_REGISTERED].writeVarLong(row.getArrivedAt() - row.getDepartedAt());
+            times[COL_LANDED - COL_REGISTERED].writeVarLong(row.getLandedAt() - row.getDepartedAt());
+            times[COL_BOARDING - COL_REGISTERED].writeVarLong(row.getBoardingAt() - row.getDepartedAt());
+        }
+        flights.writeTo(out);
+        origins.writeTo(out);
+        destinations.writeTo(out);
+        runways.writeTo(out);
+        departed.writeTo(out);
+        for (ColumnWriter column : times)
+            column.writeTo(out);
+    }
+
+    private static InputStream readColumn(DataInputStream in) throws IOException {
+        byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+        return new BufferedInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static void skipColumn(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (in.skipBytes(length) != length)
+            throw new IOException("Недописанный сегмент архива");
+    }
+
+    /**
+     * Чтение строковой колонки: словарь и индексы строк
+     * @param in Распакованная колонка
+     * @param rows Число строк
+     * @return Значения колонки
+     * @throws IOException Ошибка при чтении
+     */
+    private static String[] readStrings(InputStream in, int rows) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        String[] dictionary = new String[(int) readVarLong(data)];
+        for (int i = 0; i < dictionary.length; i++)
+            dictionary[i] = data.readUTF();
+        String[] out = new String[rows];
+        for (int i = 0; i < rows; i++)
+            out[i] = dictionary[(int) readVarLong(data)];
+        return out;
+    }
+
+    private static long[] readLongs(InputStream in, int rows) throws IOException {
+        long[] out = new long[rows];
+        for (int i = 0; i < rows; i++)
+            out[i] = readVarLong(in);
+        return out;
+    }
+
+    private static long[] readDeltas(InputStream in, int rows) throws IOException {
+        long[] out = readLongs(in, rows);
+        for (int i = 1; i < rows; i++)
+            out[i] += out[i - 1];
+        return out;
+    }
+
+    /**
+     * Чтение целого числа переменной длины в зигзаг-кодировке
+     * @param in Поток ввода
+     * @return Число
+     * @throws IOException Ошибка при чтении
+     */
+    private static long readVarLong(InputStream in) throws IOException {
+        long raw = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0)
+                throw new IOException("Недописанная колонка архива");
+            raw |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+        }
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * Накопление одной колонки сегмента перед сжатием
+     */
+    private static class ColumnWriter {
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();  //закодированные значения
+        private final Map<String, Integer> dictionary = new HashMap<>();            //словарь строк колонки
+        private final List<String> words = new ArrayList<>();                       //строки словаря по индексам
+        private final boolean strings;                                              //строковая ли колонка
+
+        ColumnWriter(boolean stringsIn) {
+            strings = stringsIn;
+        }
+
+        void writeString(String value) {
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = words.size();
+                dictionary.put(value, index);
+                words.add(value);
+            }
+            writeVarLong(index);
+        }
+
+        void writeVarLong(long value) {
+            long raw = (value << 1) ^ (value >> 63);
+            while ((raw & ~0x7FL) != 0) {
+                values.write((int) ((raw & 0x7F) | 0x80));
+                raw >>>= 7;
+            }
+            values.write((int) raw);
+        }
+
+        /**
+         * Сжатие колонки и запись ее с длиной
+         * @param out Поток вывода
+         * @throws IOException Ошибка при записи
+         */
+        void writeTo(DataOutputStream out) throws IOException {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (DataOutputStream column = new DataOutputStream(new DeflaterOutputStream(compressed))) {
+                if (strings) {
+                    ColumnWriter header = new ColumnWriter(false);
+                    header.writeVarLong(words.size());
+                    header.values.writeTo(column);
+                    for (String word : words)
+                        column.writeUTF(word);
+                }
+                values.writeTo(column);
+            }
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.airport;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Детали, связанные с самолетом, выполняющим рейс
+ */
+public class Plane implements Serializable {
+    private static final long serialVersionUID = 6859528757338792980L;  //версия формата файла исходного приложения
+
+    private String flightNumber;    //номер рейса
+    private String city;            //другой аэропорт
+    private String origin;          //аэропорт отправления
+    private PlaneStatus status;     //текущий статус рейса
+    private WakeCategory wakeCategory;  //категория турбулентности следа
+    private Runway theRunway;       //посадочная полоса
+    private long[] statusTimes;     //время перехода в каждый статус, мс
+    private transient PlaneRecord record;   //неизменяемая версия текущего состояния
+    private transient int modCount;         //счетчик изменений, по которому обновляется строка табло
+    private transient BoardRow boardRow;    //неизменяемая строка табло для счетчика boardRowCount
+    private transient int boardRowCount = -1;   //счетчик изменений, по которому построена строка табло
+    private transient long boardMark;       //номер последнего перестроения табло, в которое попал самолет
+    private transient boolean shared;       //передан ли самолет внешнему коду; такой самолет не переиспользуется
+
+    /**
+     * Конструктор прибывающего самолета
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     */
+    public Plane(String flightIn, String cityOfOrigin) {
+        this(flightIn, cityOfOrigin, WakeCategory.MEDIUM);
+    }
+
+    /**
+     * Конструктор прибывающего самолета с категорией турбулентности следа
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @param wakeCategoryIn Категория турбулентности следа
+     */
+    public Plane(String flightIn, String cityOfOrigin, WakeCategory wakeCategoryIn) {
+        this(flightIn, cityOfOrigin, wakeCategoryIn, System.currentTimeMillis());
+    }
+
+    /**
+     * Конструктор прибывающего самолета, зарегистрированного в заданный момент
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @param wakeCategoryIn Категория турбулентности следа
+     * @param time Время регистрации рейса, мс
+     */
+    Plane(String flightIn, String cityOfOrigin, WakeCategory wakeCategoryIn, long time) {
+        flightNumber = flightIn;
+        wakeCategory = wakeCategoryIn;
+        city = cityOfOrigin;
+        origin = cityOfOrigin;
+        status = PlaneStatus.DUE;   //Вылетел из порта отправления
+        theRunway = null;           //Полоса не назначена
+        statusTimes = new long[PlaneStatus.values().length];
+        statusTimes[status.ordinal()] = time;
+    }
+
+    /**
+     * Повторное использование самолета для нового рейса.
+     * Все поля заполняются так же, как в конструкторе; массив времен переиспользуется.
+     * @param flightIn Номер рейса
+     * @param cityOfOrigin Аэропорт отправления
+     * @param wakeCategoryIn Категория турбулентности следа
+     * @param time Время регистрации рейса, мс
+     */
+    void reset(String flightIn, String cityOfOrigin, WakeCategory wakeCategoryIn, long time) {
+        flightNumber = flightIn;
+        wakeCategory = wakeCategoryIn;
+        city = cityOfOrigin;
+        origin = cityOfOrigin;
+        status = PlaneStatus.DUE;
+        theRunway = null;
+        Arrays.fill(statusTimes, 0);
+        statusTimes[status.ordinal()] = time;
+        record = null;
+        modCount++;
+    }
+
+    /**
+     * Конструктор самолета из записи снимка
+     * @param recordIn Запись о самолете
+     * @param runwayIn Посадочная полоса, соответствующая номеру в записи
+     */
+    Plane(PlaneRecord recordIn, Runway runwayIn) {
+        flightNumber = recordIn.getFlightNumber();
+        city = recordIn.getCity();
+        origin = recordIn.getOrigin();
+        status = recordIn.getStatus();
+        wakeCategory = recordIn.getWakeCategory();
+        theRunway = runwayIn;
+        statusTimes = new long[PlaneStatus.values().length];
+        for (PlaneStatus value : PlaneStatus.values())
+            statusTimes[value.ordinal()] = recordIn.getStatusTime(value);
+        record = recordIn;
+    }
+
+    /**
+     * Геттер номера рейса
+     * @return Номер рейса
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Геттер города отправления
+     * @return  Город отправления
+     */
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * Геттер аэропорта отправления
+     * @return Аэропорт, из которого прибыл самолет
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Геттер категории турбулентности следа
+     * @return Категория турбулентности следа
+     */
+    public WakeCategory getWakeCategory() {
+        return wakeCategory;
+    }
+
+    /**
+     * Геттер времени перехода в статус
+     * @param statusIn Статус рейса
+     * @return Время перехода в мс или 0, если самолет еще не получал этот статус
+     */
+    public long getStatusTime(PlaneStatus statusIn) {
+        return statusTimes[statusIn.ordinal()];
+    }
+
+    /**
+     * Геттер статуса рейса
+     * @return Статус рейса
+     */
+    public PlaneStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Геттер посадочной полосы
+     * @return Посадочная полоса
+     */
+    public Runway getTheRunway() {
+        return theRunway;
+    }
+
+    /**
+     * Геттер номера посадочной полосы
+     * @return Номер посадочной полосы
+     * @throws AirportException Не назначена посадочная полоса
+     */
+    public int getRunwayNumber() throws AirportException {
+        if (theRunway == null)
+            throw new AirportException("Рейсу " + flightNumber + " не назначена посадочная полоса");
+        return theRunway.getNumber();
+    }
+
+    /**
+     * Геттер назначения посадочной полосы
+     * @return Назначена ли посадочная полоса
+     */
+    public boolean isAllocatedRunway() {
+        return theRunway != null;
+    }
+
+    /**
+     * Назначение посадочной полосы
+     * @param runwayIn Посадочная полоса
+     * @throws AirportException Неверная полоса
+     */
+    public void allocateRunway(Runway runwayIn) throws AirportException {
+        if (runwayIn == null)
+            throw new AirportException("Передана отсутствующая полоса");
+        if (runwayIn.isAllocated())
+            throw new AirportException("Полоса забронирована под другой рейс");
+        theRunway = runwayIn;
+        theRunway.book();
+        record = null;
+        modCount++;
+    }
+
+    /**
+     * Освобождение посадочной полосы
+     * @throws AirportException Не выделена полоса
+     */
+    public void vacateRunway() throws AirportException {
+        if (theRunway == null)
+            throw new AirportException("Отсутствует выделенная полоса");
+        theRunway.vacate();
+    }
+
+    /**
+     * Геттер статуса самолета
+     * @return Статус самолета
+     */
+    public String getStatusName() {
+        return status.toString();
+    }
+
+    /**
+     * Изменение статуса самолета
+     * @throws AirportException Некорректный вызов метода
+     */
+    public void upgradeStatus() throws AirportException {
+        upgradeStatus(System.currentTimeMillis());
+    }
+
+    /**
+     * Изменение статуса самолета в заданный момент
+     * @param time Время перехода в новый статус, мс
+     * @throws AirportException Некорректный вызов метода
+     */
+    void upgradeStatus(long time) throws AirportException {
+        switch (status) {
+            case DUE:       status = PlaneStatus.WAITING;   break;
+            case WAITING:   status = PlaneStatus.LANDED;    break;
+            case LANDED:    status = PlaneStatus.DEPARTING; break;
+            case DEPARTING: throw new AirportException("Нельзя изменить статус DEPARTING");
+        }
+        statusTimes[status.ordinal()] = time;
+        record = null;
+        modCount++;
+    }
+
+    /**
+     * Изменение связанного с рейсом города
+     * @param destination Другой аэропорт в рейсе
+     */
+    public void changeCity(String destination ) {
+        city = destination;
+        record = null;
+        modCount++;
+    }
+
+    /**
+     * Неизменяемая версия текущего состояния самолета.
+     * Запись создается заново только после изменения самолета.
+     * @return Запись о самолете
+     */
+    PlaneRecord toRecord() {
+        if (record == null)
+            record = new PlaneRecord(flightNumber, origin, city, status,
+                    theRunway == null ? 0 : theRunway.getNumber(), wakeCategory, statusTimes);
+        return record;
+    }
+
+    /**
+     * Строка табло по текущему состоянию.
+     * Новая строка создается только после изменения самолета.
+     * @return Неизменяемая строка табло
+     */
+    BoardRow toBoardRow() {
+        //у самолета, прочитанного из файла, счетчики нулевые, а строки еще нет
+        if (boardRow == null || boardRowCount != modCount) {
+            boardRow = new BoardRow(this);
+            boardRowCount = modCount;
+        }
+        return boardRow;
+    }
+
+    /**
+     * Отметка о попадании самолета в перестроение табло
+     * @param build Номер перестроения
+     * @return Был ли самолет уже отмечен этим перестроением
+     */
+    boolean markBoard(long build) {
+        if (boardMark == build)
+            return true;
+        boardMark = build;
+        return false;
+    }
+
+    /**
+     * Отметка о передаче самолета внешнему коду.
+     * Внешний код может хранить ссылку сколько угодно, поэтому после взлета такой самолет
+     * не используется повторно для другого рейса.
+     * @return Этот самолет
+     */
+    Plane share() {
+        shared = true;
+        return this;
+    }
+
+    /**
+     * Проверка, передавался ли самолет внешнему коду
+     * @return Передан ли самолет
+     */
+    boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Получение информации о самолете
+     * @return Информация о самолете
+     */
+    @Override
+    public String toString() {
+        String out = "номер рейса: " + flightNumber + "\tгород: " + city + "\tстатус: " + status;
+        if (theRunway != null)
+            out = out + "\tполоса: " + theRunway;
+        return out;
+    }
+
+    /**
+     * Сравнение с другим объектом
+     * @param objIn Приходящий объект
+     * @return Равны ли объекты
+     */
+    @Override
+    public boolean equals(Object objIn) {
+        if (objIn instanceof Plane) {
+            Plane plane = (Plane) objIn;
+            return flightNumber.equals(plane.flightNumber);
+        }
+        return false;
+    }
+
+    /**
+     * Получение хэш-кода объекта.
+     * Хэш-код строки кэшируется в самой строке, поэтому вызов не создает объектов.
+     * @return Хэш-код
+     */
+    @Override
+    public int hashCode() {
+        return flightNumber.hashCode();
+    }
+
+    /**
+     * Чтение самолета из файла.
+     * В файлах, сохраненных до появления новых полей, эти поля отсутствуют;
+     * им присваиваются значения по умолчанию: средняя категория турбулентности,
+     * аэропорт отправления совпадает с городом, время переходов не известно.
+     * @param in Поток чтения
+     * @throws IOException Ошибка при чтении файла
+     * @throws ClassNotFoundException Ошибка при разборе файла
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (wakeCategory == null)
+            wakeCategory = WakeCategory.MEDIUM;
+        if (origin == null)
+            origin = city;
+        if (statusTimes == null)
+            statusTimes = new long[PlaneStatus.values().length];
+    }
+}
@@ -0,0 +1,140 @@
+package org.airport;
+
+/**
+ * Неизменяемая версия состояния самолета для отчетов, табло и сохранения.
+ * Время переходов между статусами хранится в записи, но не участвует в сравнении:
+ * две записи равны, если совпадает состояние рейса.
+ */
+public final class PlaneRecord {
+    private final String flightNumber;  //номер рейса
+    private final String origin;        //аэропорт отправления
+    private final String city;          //другой аэропорт
+    private final PlaneStatus status;   //статус рейса
+    private final int runwayNumber;     //номер полосы, 0 - полоса не назначена
+    private final WakeCategory wakeCategory;    //категория турбулентности следа
+    private final long[] statusTimes;   //время перехода в каждый статус, мс
+
+    /**
+     * Конструктор записи о самолете
+     * @param flightIn Номер рейса
+     * @param originIn Аэропорт отправления
+     * @param cityIn Другой аэропорт
+     * @param statusIn Статус рейса
+     * @param runwayNumberIn Номер посадочной полосы или 0
+     * @param wakeCategoryIn Категория турбулентности следа
+     * @param statusTimesIn Время перехода в каждый статус по порядку статусов
+     */
+    public PlaneRecord(String flightIn, String originIn, String cityIn, PlaneStatus statusIn, int runwayNumberIn,
+                       WakeCategory wakeCategoryIn, long[] statusTimesIn) {
+        flightNumber = flightIn;
+        origin = originIn;
+        city = cityIn;
+        status = statusIn;
+        runwayNumber = runwayNumberIn;
+        wakeCategory = wakeCategoryIn;
+        statusTimes = statusTimesIn.clone();
+    }
+
+    /**
+     * Геттер номера рейса
+     * @return Номер рейса
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Геттер аэропорта отправления
+     * @return Аэропорт, из которого прибыл самолет
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Геттер связанного с рейсом города
+     * @return Другой аэропорт
+     */
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * Геттер статуса рейса
+     * @return Статус рейса
+     */
+    public PlaneStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Геттер категории турбулентности следа
+     * @return Категория турбулентности следа
+     */
+    public WakeCategory getWakeCategory() {
+        return wakeCategory;
+    }
+
+    /**
+     * Геттер времени перехода в статус
+     * @param statusIn Статус рейса
+     * @return Время перехода в мс или 0, если самолет еще не получал этот статус
+     */
+    public long getStatusTime(PlaneStatus statusIn) {
+        return statusTimes[statusIn.ordinal()];
+    }
+
+    /**
+     * Геттер номера посадочной полосы
+     * @return Номер полосы или 0, если полоса не назначена
+     */
+    public int getRunwayNumber() {
+        return runwayNumber;
+    }
+
+    /**
+     * Геттер назначения посадочной полосы
+     * @return Назначена ли посадочная полоса
+     */
+    public boolean isAllocatedRunway() {
+        return runwayNumber != 0;
+    }
+
+    /**
+     * Получение информации о самолете
+     * @return Информация о самолете
+     */
+    @Override
+    public String toString() {
+        String out = "номер рейса: " + flightNumber + "\tгород: " + city + "\tстатус: " + status;
+        if (runwayNumber != 0)
+            out = out + "\tполоса: " + runwayNumber;
+        return out;
+    }
+
+    /**
+     * Сравнение с другим объектом
+     * @param objIn Приходящий объект
+     * @return Совпадают ли все поля записей
+     */
+    @Override
+    public boolean equals(Object objIn) {
+        if (this == objIn)
+            return true;
+        if (!(objIn instanceof PlaneRecord))
+            return false;
+        PlaneRecord other = (PlaneRecord) objIn;
+        return runwayNumber == other.runwayNumber && status == other.status && wakeCategory == other.wakeCategory
+                && flightNumber.equals(other.flightNumber) && city.equals(other.city)
+                && origin.equals(other.origin);
+    }
+
+    /**
+     * Получение хэш-кода объекта
+     * @return Хэш-код
+     */
+    @Override
+    public int hashCode() {
+        return flightNumber.hashCode();
+    }
+}
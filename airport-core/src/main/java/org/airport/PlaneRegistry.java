@@ -0,0 +1,166 @@
+package org.airport;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Зарегистрированные самолеты по номерам рейсов.
+ * Таблица с открытой адресацией хранит сами самолеты без промежуточных узлов, поэтому
+ * регистрация и взлет рейса не создают объектов, пока таблице хватает емкости.
+ */
+class PlaneRegistry implements Iterable<Plane> {
+    private Plane[] table = new Plane[16];  //самолеты, ключ - номер рейса самолета
+    private int size;                       //число самолетов
+
+    /**
+     * Поиск самолета
+     * @param flightIn Номер рейса
+     * @return Самолет или null, если рейс не зарегистрирован
+     */
+    Plane get(String flightIn) {
+        int i = indexOf(flightIn);
+        return i < 0 ? null : table[i];
+    }
+
+    /**
+     * Проверка регистрации рейса
+     * @param flightIn Номер рейса
+     * @return Зарегистрирован ли рейс
+     */
+    boolean containsKey(String flightIn) {
+        return indexOf(flightIn) >= 0;
+    }
+
+    /**
+     * Добавление или замена самолета с тем же номером рейса
+     * @param plane Самолет
+     */
+    void put(Plane plane) {
+        if ((size + 1) * 2 > table.length)
+            resize(table.length * 2);
+        int mask = table.length - 1;
+        int i = slot(plane.getFlightNumber(), mask);
+        while (table[i] != null) {
+            if (table[i].getFlightNumber().equals(plane.getFlightNumber())) {
+                table[i] = plane;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = plane;
+        size++;
+    }
+
+    /**
+     * Удаление самолета со сдвигом следующих за ним элементов цепочки
+     * @param flightIn Номер рейса
+     * @return Удаленный самолет или null
+     */
+    Plane remove(String flightIn) {
+        int i = indexOf(flightIn);
+        if (i < 0)
+            return null;
+        Plane removed = table[i];
+        int mask = table.length - 1;
+        int j = i;
+        while (true) {
+            table[i] = null;
+            do {
+                j = (j + 1) & mask;
+                if (table[j] == null) {
+                    size--;
+                    return removed;
+                }
+                int k = slot(table[j].getFlightNumber(), mask);
+                //элемент можно сдвинуть на место i, если его исходная позиция не лежит в (i, j]
+                if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+                    continue;
+                break;
+            } while (true);
+            table[i] = table[j];
+            i = j;
+        }
+    }
+
+    /**
+     * Число самолетов
+     * @return Число зарегистрированных рейсов
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Емкость таблицы
+     * @return Число ячеек, доступных через {@link #at(int)}
+     */
+    int capacity() {
+        return table.length;
+    }
+
+    /**
+     * Самолет в ячейке таблицы; обход по ячейкам не создает итератор
+     * @param slot Номер ячейки от 0 до {@link #capacity()}
+     * @return Самолет или null, если ячейка пуста
+     */
+    Plane at(int slot) {
+        return table[slot];
+    }
+
+    /**
+     * Обход самолетов в порядке таблицы
+     * @return Итератор по самолетам
+     */
+    @Override
+    public Iterator<Plane> iterator() {
+        return new Iterator<Plane>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < table.length && table[from] == null)
+                    from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < table.length;
+            }
+
+            @Override
+            public Plane next() {
+                if (next >= table.length)
+                    throw new NoSuchElementException();
+                Plane plane = table[next];
+                next = advance(next + 1);
+                return plane;
+            }
+        };
+    }
+
+    private int indexOf(String flightIn) {
+        int mask = table.length - 1;
+        int i = slot(flightIn, mask);
+        while (table[i] != null) {
+            if (table[i].getFlightNumber().equals(flightIn))
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int slot(String flightIn, int mask) {
+        int h = flightIn.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void resize(int capacity) {
+        Plane[] old = table;
+        table = new Plane[capacity];
+        size = 0;
+        for (Plane plane : old) {
+            if (plane != null)
+                put(plane);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.airport;
+
+import java.io.Serializable;
+
+/**
+ * Бронь посадочной полосы на интервал времени [начало, конец)
+ */
+public final class Reservation implements Serializable {
+    private static final long serialVersionUID = 1L;   //версия формата файла
+
+    private final String flightNumber;  //номер рейса
+    private final int runwayNumber;     //номер посадочной полосы
+    private final long start;           //начало интервала, мс
+    private final long end;             //конец интервала, мс
+
+    /**
+     * Конструктор брони
+     * @param flightIn Номер рейса
+     * @param runwayNumberIn Номер посадочной полосы
+     * @param startIn Начало интервала включительно, мс
+     * @param endIn Конец интервала не включительно, мс
+     * @throws AirportException Пустой интервал
+     */
+    public Reservation(String flightIn, int runwayNumberIn, long startIn, long endIn) throws AirportException {
+        if (endIn <= startIn)
+            throw new AirportException("Пустой интервал брони рейса " + flightIn);
+        flightNumber = flightIn;
+        runwayNumber = runwayNumberIn;
+        start = startIn;
+        end = endIn;
+    }
+
+    /**
+     * Геттер номера рейса
+     * @return Номер рейса
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Геттер номера посадочной полосы
+     * @return Номер посадочной полосы
+     */
+    public int getRunwayNumber() {
+        return runwayNumber;
+    }
+
+    /**
+     * Геттер начала интервала
+     * @return Начало интервала включительно, мс
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Геттер конца интервала
+     * @return Конец интервала не включительно, мс
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Проверка попадания момента времени в интервал брони
+     * @param time Момент времени, мс
+     * @return Действует ли бронь в этот момент
+     */
+    public boolean covers(long time) {
+        return start <= time && time < end;
+    }
+
+    /**
+     * Получение информации о брони
+     * @return Информация о брони
+     */
+    @Override
+    public String toString() {
+        return "номер рейса: " + flightNumber + "\tполоса: " + runwayNumber + "\tс " + start + " по " + end;
+    }
+
+    /**
+     * Сравнение с другим объектом
+     * @param objIn Приходящий объект
+     * @return Совпадают ли все поля брони
+     */
+    @Override
+    public boolean equals(Object objIn) {
+        if (this == objIn)
+            return true;
+        if (!(objIn instanceof Reservation))
+            return false;
+        Reservation other = (Reservation) objIn;
+        return runwayNumber == other.runwayNumber && start == other.start && end == other.end
+                && flightNumber.equals(other.flightNumber);
+    }
+
+    /**
+     * Получение хэш-кода объекта
+     * @return Хэш-код
+     */
+    @Override
+    public int hashCode() {
+        return flightNumber.hashCode() * 31 + Long.hashCode(start);
+    }
+}
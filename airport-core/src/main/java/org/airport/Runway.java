@@ -0,0 +1,149 @@
+package org.airport;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+/**
+ * Посадочная полоса
+ */
+public class Runway implements Serializable {
+    private static final long serialVersionUID = -1781255761514996638L;    //версия формата файла исходного приложения
+
+    private int number;         //Номер полосы
+    private boolean allocated;  //Назначен ли самолет на эту полосу
+    private RunwayCalendar calendar = new RunwayCalendar();    //Брони полосы на будущее время
+    private WakeCategory lastCategory;      //Категория последнего самолета, получившего полосу, null - не было
+    private long lastLandingAt;             //Время выдачи полосы последнему самолету, мс
+    private transient String numberText;    //Номер полосы для вывода на табло
+
+    /**
+     * Конструктор посадочной полосы
+     * @param numberIn Номер посадочной полосы
+     */
+    public Runway(int numberIn) {
+        if (numberIn < 1)
+            throw new AirportException("Неверный номер посадочной полосы " + numberIn);
+        number = numberIn;
+        allocated = false;
+    }
+
+    /**
+     * Конструктор полосы из записи снимка
+     * @param recordIn Запись о полосе
+     */
+    Runway(RunwayRecord recordIn) {
+        this(recordIn.getNumber());
+        allocated = recordIn.isAllocated();
+        lastCategory = recordIn.getLastCategory();
+        lastLandingAt = recordIn.getLastLandingAt();
+    }
+
+    /**
+     * Геттер номера полосы
+     * @return Номер посадочной полосы
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Геттер номера полосы для вывода.
+     * Строка создается при первом обращении и дальше используется повторно.
+     * @return Номер посадочной полосы в виде строки
+     */
+    String getNumberText() {
+        if (numberText == null)
+            numberText = Integer.toString(number);
+        return numberText;
+    }
+
+    /**
+     * Геттер назначения самолета
+     * @return Булево, назначен ли самолет на данную полосу
+     */
+    public boolean isAllocated() {
+        return allocated;
+    }
+
+    /**
+     * Геттер календаря броней
+     * @return Календарь броней полосы
+     */
+    public RunwayCalendar getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * Отметка о выдаче полосы самолету для посадки
+     * @param category Категория турбулентности следа самолета
+     * @param time Время выдачи полосы, мс
+     */
+    void cleared(WakeCategory category, long time) {
+        lastCategory = category;
+        lastLandingAt = time;
+    }
+
+    /**
+     * Геттер категории последнего самолета, получившего полосу
+     * @return Категория или null, если полоса еще не выдавалась
+     */
+    WakeCategory getLastCategory() {
+        return lastCategory;
+    }
+
+    /**
+     * Геттер времени выдачи полосы последнему самолету
+     * @return Время, мс
+     */
+    long getLastLandingAt() {
+        return lastLandingAt;
+    }
+
+    /**
+     * Ближайшее время, когда полосу можно выдать самолету с учетом турбулентности следа
+     * @param category Категория турбулентности следа самолета
+     * @return Время, мс; Long.MIN_VALUE - ограничения нет
+     */
+    long readyAt(WakeCategory category) {
+        if (lastCategory == null)
+            return Long.MIN_VALUE;
+        return lastLandingAt + lastCategory.separationBefore(category);
+    }
+
+    /**
+     * Неизменяемая запись о текущем состоянии полосы
+     * @return Запись о полосе
+     */
+    RunwayRecord toRecord() {
+        return new RunwayRecord(number, allocated, lastCategory, lastLandingAt);
+    }
+
+    /**
+     * Бронирование полосы для самолета
+     */
+    public void book() {
+        allocated = true;
+    }
+
+    /**
+     * Освобождение посадочной полосы
+     */
+    public void vacate() {
+        allocated = false;
+    }
+
+    /**
+     * Чтение полосы из файла.
+     * В файлах, сохраненных до появления броней, календаря нет, и полоса получает пустой календарь;
+     * в файлах без сведений о последней посадке ограничения по турбулентности следа нет.
+     * @param in Поток чтения
+     * @throws IOException Ошибка при чтении файла
+     * @throws ClassNotFoundException Ошибка при разборе файла
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (calendar == null)
+            calendar = new RunwayCalendar();
+    }
+}
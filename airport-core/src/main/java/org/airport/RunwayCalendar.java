@@ -0,0 +1,317 @@
+package org.airport;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Календарь броней одной посадочной полосы.
+ * Брони полосы не пересекаются, поэтому вместо дерева интервалов достаточно упорядоченного
+ * по началу дерева: пересечение с новым интервалом возможно только у брони с наибольшим
+ * началом левее его конца, и проверка конфликта выполняется за логарифмическое время.
+ * Для поиска свободного окна брони дополнительно хранятся в декартовом дереве, где каждый узел
+ * знает наибольший промежуток перед бронями своего поддерева; поэтому и плотно заполненный
+ * календарь просматривается за логарифмическое время, а не подряд.
+ * Изменять календарь может только аэропорт, чтобы брони попадали в версию, журнал и запись команд.
+ */
+public class RunwayCalendar implements Serializable {
+    private static final long serialVersionUID = 1L;   //версия формата файла
+
+    private final TreeMap<Long, Reservation> byStart = new TreeMap<>();    //брони по началу интервала
+    private final Map<String, Reservation> byFlight = new HashMap<>();     //брони по номеру рейса
+    private transient GapNode gaps;                                         //дерево промежутков между бронями
+    private transient long visited;                                         //узлы дерева, просмотренные последним поиском
+
+    /**
+     * Проверка свободности интервала
+     * @param start Начало интервала включительно, мс
+     * @param end Конец интервала не включительно, мс
+     * @return Нет ли брони, пересекающейся с интервалом
+     */
+    public boolean isFree(long start, long end) {
+        Map.Entry<Long, Reservation> previous = byStart.lowerEntry(end);
+        return previous == null || previous.getValue().getEnd() <= start;
+    }
+
+    /**
+     * Бронь, действующая в заданный момент
+     * @param time Момент времени, мс
+     * @return Бронь или null, если полоса в этот момент не забронирована
+     */
+    public Reservation reservationAt(long time) {
+        Map.Entry<Long, Reservation> entry = byStart.floorEntry(time);
+        if (entry != null && entry.getValue().covers(time))
+            return entry.getValue();
+        return null;
+    }
+
+    /**
+     * Бронь рейса
+     * @param flightIn Номер рейса
+     * @return Бронь или null, если рейс не бронировал эту полосу
+     */
+    public Reservation getReservation(String flightIn) {
+        return byFlight.get(flightIn);
+    }
+
+    /**
+     * Поиск ближайшего свободного интервала заданной длины
+     * @param from Время, не раньше которого должен начинаться интервал, мс
+     * @param duration Длина интервала, мс
+     * @return Начало свободного интервала, мс
+     */
+    public long nextFreeSlot(long from, long duration) {
+        visited = 0;
+        long candidate = from;
+        Map.Entry<Long, Reservation> previous = byStart.floorEntry(candidate);
+        if (previous != null && previous.getValue().getEnd() > candidate)
+            candidate = previous.getValue().getEnd();
+        Map.Entry<Long, Reservation> next = byStart.ceilingEntry(candidate);
+        if (next == null || next.getKey() - candidate >= duration)
+            return candidate;
+        //первая бронь после next, перед которой помещается интервал; окно начинается в конце предыдущей
+        GapNode gap = firstGap(gaps, next.getKey(), duration);
+        if (gap == null)
+            return byStart.lastEntry().getValue().getEnd();
+        return byStart.lowerEntry(gap.start).getValue().getEnd();
+    }
+
+    /**
+     * Число узлов дерева промежутков, просмотренных последним поиском свободного интервала
+     * @return Объем работы последнего поиска
+     */
+    long getLastVisited() {
+        return visited;
+    }
+
+    /**
+     * Добавление брони
+     * @param reservation Бронь
+     * @throws AirportException Рейс уже бронировал полосу или интервал занят
+     */
+    void reserve(Reservation reservation) throws AirportException {
+        if (byFlight.containsKey(reservation.getFlightNumber()))
+            throw new AirportException("Рейс " + reservation.getFlightNumber() + " уже забронировал полосу");
+        if (!isFree(reservation.getStart(), reservation.getEnd()))
+            throw new AirportException("Интервал брони рейса " + reservation.getFlightNumber() + " занят");
+        byStart.put(reservation.getStart(), reservation);
+        byFlight.put(reservation.getFlightNumber(), reservation);
+        addGap(reservation);
+    }
+
+    /**
+     * Отмена брони рейса
+     * @param flightIn Номер рейса
+     * @return Отмененная бронь или null, если брони не было
+     */
+    Reservation cancel(String flightIn) {
+        Reservation reservation = byFlight.remove(flightIn);
+        if (reservation != null)
+            remove(reservation);
+        return reservation;
+    }
+
+    /**
+     * Удаление броней, закончившихся к заданному моменту
+     * @param time Момент времени, мс
+     * @return Удаленные брони
+     */
+    List<Reservation> expire(long time) {
+        List<Reservation> out = new ArrayList<>();
+        while (!byStart.isEmpty() && byStart.firstEntry().getValue().getEnd() <= time) {
+            Reservation reservation = byStart.firstEntry().getValue();
+            byFlight.remove(reservation.getFlightNumber());
+            remove(reservation);
+            out.add(reservation);
+        }
+        return out;
+    }
+
+    /**
+     * Все брони полосы по порядку начала
+     * @return Брони полосы
+     */
+    public Collection<Reservation> getReservations() {
+        return Collections.unmodifiableCollection(byStart.values());
+    }
+
+    /**
+     * Удаление брони из обоих деревьев с пересчетом промежутка перед следующей бронью
+     * @param reservation Бронь
+     */
+    private void remove(Reservation reservation) {
+        byStart.remove(reservation.getStart());
+        gaps = removeNode(gaps, reservation.getStart());
+        Map.Entry<Long, Reservation> next = byStart.higherEntry(reservation.getStart());
+        if (next != null)
+            gaps = setGap(gaps, next.getKey(), gapBefore(next.getKey()));
+    }
+
+    /**
+     * Добавление в дерево промежутков брони, уже занесенной в byStart
+     * @param reservation Бронь
+     */
+    private void addGap(Reservation reservation) {
+        GapNode node = new GapNode(reservation.getStart(), gapBefore(reservation.getStart()));
+        gaps = insertNode(gaps, node);
+        Map.Entry<Long, Reservation> next = byStart.higherEntry(reservation.getStart());
+        if (next != null)
+            gaps = setGap(gaps, next.getKey(), next.getKey() - reservation.getEnd());
+    }
+
+    /**
+     * Промежуток между концом предыдущей брони и началом брони с заданным началом
+     * @param start Начало брони, мс
+     * @return Промежуток, мс; для первой брони не ограничен
+     */
+    private long gapBefore(long start) {
+        Map.Entry<Long, Reservation> previous = byStart.lowerEntry(start);
+        return previous == null ? Long.MAX_VALUE : start - previous.getValue().getEnd();
+    }
+
+    /**
+     * Восстановление дерева промежутков после чтения календаря из файла
+     * @param in Поток чтения
+     * @throws IOException Ошибка при чтении файла
+     * @throws ClassNotFoundException Ошибка при разборе файла
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        for (Reservation reservation : byStart.values())
+            gaps = insertNode(gaps, new GapNode(reservation.getStart(), gapBefore(reservation.getStart())));
+    }
+
+    /**
+     * Первая бронь с началом позже заданного, перед которой свободен промежуток не короче заданного.
+     * Поддерево с недостаточным наибольшим промежутком пропускается целиком.
+     * @param node Корень поддерева
+     * @param after Начало, после которого ищется бронь, мс
+     * @param duration Наименьший промежуток, мс
+     * @return Узел брони или null
+     */
+    private GapNode firstGap(GapNode node, long after, long duration) {
+        if (node == null)
+            return null;
+        visited++;
+        if (node.maxGap < duration)
+            return null;
+        if (node.start <= after)
+            return firstGap(node.right, after, duration);
+        GapNode found = firstGap(node.left, after, duration);
+        if (found != null)
+            return found;
+        if (node.gap >= duration)
+            return node;
+        return firstGap(node.right, after, duration);
+    }
+
+    private static GapNode insertNode(GapNode node, GapNode added) {
+        if (node == null)
+            return added;
+        if (added.start < node.start) {
+            node.left = insertNode(node.left, added);
+            if (node.left.priority > node.priority)
+                node = rotateRight(node);
+        }
+        else {
+            node.right = insertNode(node.right, added);
+            if (node.right.priority > node.priority)
+                node = rotateLeft(node);
+        }
+        node.update();
+        return node;
+    }
+
+    private static GapNode removeNode(GapNode node, long start) {
+        if (node == null)
+            return null;
+        if (start < node.start)
+            node.left = removeNode(node.left, start);
+        else if (start > node.start)
+            node.right = removeNode(node.right, start);
+        else
+            return merge(node.left, node.right);
+        node.update();
+        return node;
+    }
+
+    private static GapNode setGap(GapNode node, long start, long gap) {
+        if (start < node.start)
+            node.left = setGap(node.left, start, gap);
+        else if (start > node.start)
+            node.right = setGap(node.right, start, gap);
+        else
+            node.gap = gap;
+        node.update();
+        return node;
+    }
+
+    private static GapNode merge(GapNode left, GapNode right) {
+        if (left == null)
+            return right;
+        if (right == null)
+            return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static GapNode rotateRight(GapNode node) {
+        GapNode left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        left.update();
+        return left;
+    }
+
+    private static GapNode rotateLeft(GapNode node) {
+        GapNode right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        right.update();
+        return right;
+    }
+
+    /**
+     * Узел декартова дерева промежутков: ключ - начало брони, приоритет - перемешанный ключ,
+     * поэтому форма дерева не зависит от порядка бронирования
+     */
+    private static final class GapNode {
+        private final long start;       //начало брони, мс
+        private final int priority;     //приоритет узла в куче
+        private long gap;               //промежуток перед бронью, мс
+        private long maxGap;            //наибольший промежуток в поддереве, мс
+        private GapNode left;           //брони с меньшим началом
+        private GapNode right;          //брони с большим началом
+
+        GapNode(long startIn, long gapIn) {
+            start = startIn;
+            long mixed = startIn * 0x9E3779B97F4A7C15L;
+            priority = (int) (mixed ^ (mixed >>> 32));
+            gap = gapIn;
+            maxGap = gapIn;
+        }
+
+        void update() {
+            maxGap = gap;
+            if (left != null && left.maxGap > maxGap)
+                maxGap = left.maxGap;
+            if (right != null && right.maxGap > maxGap)
+                maxGap = right.maxGap;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.airport;
+
+import java.util.Objects;
+
+/**
+ * Неизменяемое состояние посадочной полосы для снимков и журнала изменений
+ */
+final class RunwayRecord {
+    private final int number;                   //номер полосы
+    private final boolean allocated;            //назначен ли самолет на полосу
+    private final WakeCategory lastCategory;    //категория последнего севшего самолета, null - посадок не было
+    private final long lastLandingAt;           //время последней посадки, мс
+
+    /**
+     * Конструктор записи о полосе
+     * @param numberIn Номер полосы
+     * @param allocatedIn Назначен ли самолет на полосу
+     * @param lastCategoryIn Категория последнего севшего самолета или null
+     * @param lastLandingAtIn Время последней посадки, мс
+     */
+    RunwayRecord(int numberIn, boolean allocatedIn, WakeCategory lastCategoryIn, long lastLandingAtIn) {
+        number = numberIn;
+        allocated = allocatedIn;
+        lastCategory = lastCategoryIn;
+        lastLandingAt = lastLandingAtIn;
+    }
+
+    /**
+     * Геттер номера полосы
+     * @return Номер посадочной полосы
+     */
+    int getNumber() {
+        return number;
+    }
+
+    /**
+     * Геттер назначения самолета
+     * @return Назначен ли самолет на полосу
+     */
+    boolean isAllocated() {
+        return allocated;
+    }
+
+    /**
+     * Геттер категории последнего севшего самолета
+     * @return Категория или null, если посадок не было
+     */
+    WakeCategory getLastCategory() {
+        return lastCategory;
+    }
+
+    /**
+     * Геттер времени последней посадки
+     * @return Время последней посадки, мс
+     */
+    long getLastLandingAt() {
+        return lastLandingAt;
+    }
+
+    /**
+     * Сравнение с другим объектом
+     * @param objIn Приходящий объект
+     * @return Равны ли записи
+     */
+    @Override
+    public boolean equals(Object objIn) {
+        if (!(objIn instanceof RunwayRecord))
+            return false;
+        RunwayRecord other = (RunwayRecord) objIn;
+        return number == other.number && allocated == other.allocated && lastCategory == other.lastCategory
+                && lastLandingAt == other.lastLandingAt;
+    }
+
+    /**
+     * Получение хэш-кода объекта
+     * @return Хэш-код
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(number, allocated, lastCategory, lastLandingAt);
+    }
+}
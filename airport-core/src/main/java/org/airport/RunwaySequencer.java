@@ -0,0 +1,246 @@
+package org.airport;
+
+import java.util.Arrays;
+
+/**
+ * Оптимизатор порядка посадки самолетов из очереди ожидания на несколько полос.
+ * Минимизирует суммарную задержку (время посадки минус время постановки в очередь) с учетом
+ * интервалов турбулентности следа между посадками на одну полосу. Начальный порядок строится
+ * жадно, затем улучшается перестановками соседних самолетов, пока есть улучшение и не исчерпан
+ * бюджет работы. Перестановка оценивается пересчетом только тех посадок, которые идут после нее,
+ * а бюджет задается числом таких пересчитанных посадок, поэтому время расчета ограничено
+ * независимо от длины очереди. Результат зависит только от входных данных и бюджета, поэтому
+ * записанные команды воспроизводятся в тот же порядок очереди на любой машине. Бюджет времени
+ * можно задать дополнительно там, где воспроизводимость не нужна. Чтобы рейсы не откладывались
+ * бесконечно, самолет может сместиться относительно порядка прибытия не более чем на заданное
+ * число позиций.
+ */
+public class RunwaySequencer {
+    private final int maxShift;         //наибольшее смещение относительно порядка прибытия
+    private final long budgetNanos;     //бюджет времени на локальный поиск, нс; 0 - без ограничения
+    private final long maxPlacements;   //наибольшее число посадок, пересчитанных в локальном поиске
+    private long placements;            //число посадок, пересчитанных в последнем расчете
+
+    /**
+     * Конструктор детерминированного оптимизатора: локальный поиск ограничен только объемом работы
+     * @param maxShiftIn Наибольшее смещение самолета относительно порядка прибытия
+     * @param maxPlacementsIn Наибольшее число посадок, пересчитанных при оценке перестановок
+     * @throws AirportException Неверные параметры
+     */
+    public RunwaySequencer(int maxShiftIn, long maxPlacementsIn) throws AirportException {
+        this(maxShiftIn, 0, maxPlacementsIn);
+    }
+
+    /**
+     * Конструктор оптимизатора с бюджетом времени.
+     * С ненулевым бюджетом порядок зависит от скорости машины и не воспроизводится при повторе команд.
+     * @param maxShiftIn Наибольшее смещение самолета относительно порядка прибытия
+     * @param budgetNanosIn Бюджет времени на локальный поиск, нс; 0 - без ограничения по времени
+     * @param maxPlacementsIn Наибольшее число посадок, пересчитанных при оценке перестановок
+     * @throws AirportException Неверные параметры
+     */
+    public RunwaySequencer(int maxShiftIn, long budgetNanosIn, long maxPlacementsIn) throws AirportException {
+        if (maxShiftIn < 0 || budgetNanosIn < 0 || maxPlacementsIn < 0)
+            throw new AirportException("Неверные параметры оптимизатора порядка посадки");
+        maxShift = maxShiftIn;
+        budgetNanos = budgetNanosIn;
+        maxPlacements = maxPlacementsIn;
+    }
+
+    /**
+     * Расчет порядка посадки, если все полосы освобождаются в текущий момент
+     * @param categories Категории самолетов в порядке прибытия
+     * @param queuedAt Время постановки в очередь в порядке прибытия, мс
+     * @param leaders Категория последнего самолета на каждой полосе или null, если ограничения нет
+     * @param now Текущее время, мс
+     * @return Порядок посадки: индексы самолетов в порядке прибытия
+     */
+    public int[] sequence(WakeCategory[] categories, long[] queuedAt, WakeCategory[] leaders, long now) {
+        return sequence(categories, queuedAt, leaders, nowTimes(leaders.length, now), now);
+    }
+
+    /**
+     * Расчет порядка посадки
+     * @param categories Категории самолетов в порядке прибытия
+     * @param queuedAt Время постановки в очередь в порядке прибытия, мс
+     * @param leaders Категория последнего самолета на каждой полосе или null, если ограничения нет
+     * @param leaderTimes Время посадки последнего самолета на каждой полосе, мс
+     * @param now Текущее время, мс
+     * @return Порядок посадки: индексы самолетов в порядке прибытия
+     */
+    public int[] sequence(WakeCategory[] categories, long[] queuedAt, WakeCategory[] leaders, long[] leaderTimes,
+                          long now) {
+        long deadline = budgetNanos == 0 ? 0 : System.nanoTime() + budgetNanos;
+        placements = 0;
+        int n = categories.length;
+        int[] order = greedy(categories, queuedAt, leaders, leaderTimes, now);
+        if (n < 2)
+            return order;
+        long[] lastTime = new long[leaders.length];
+        WakeCategory[] lastCategory = new WakeCategory[leaders.length];
+        long[] scratchTime = new long[leaders.length];
+        WakeCategory[] scratchCategory = new WakeCategory[leaders.length];
+        long best = totalDelay(order, categories, queuedAt, leaders, leaderTimes, now);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            System.arraycopy(leaderTimes, 0, lastTime, 0, lastTime.length);
+            System.arraycopy(leaders, 0, lastCategory, 0, lastCategory.length);
+            long prefix = 0;    //задержка посадок до текущей позиции, не зависящая от перестановки
+            for (int i = 0; i + 1 < n; i++) {
+                if (placements >= maxPlacements || deadline != 0 && System.nanoTime() > deadline)
+                    return order;
+                if (canPlace(order[i], i + 1) && canPlace(order[i + 1], i)) {
+                    swap(order, i, i + 1);
+                    System.arraycopy(lastTime, 0, scratchTime, 0, lastTime.length);
+                    System.arraycopy(lastCategory, 0, scratchCategory, 0, lastCategory.length);
+                    long delay = prefix;
+                    for (int position = i; position < n; position++)
+                        delay += place(order[position], categories, queuedAt, scratchTime, scratchCategory, now);
+                    placements += n - i;
+                    if (delay < best) {
+                        best = delay;
+                        improved = true;
+                    }
+                    else
+                        swap(order, i, i + 1);
+                }
+                prefix += place(order[i], categories, queuedAt, lastTime, lastCategory, now);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Суммарная задержка при заданном порядке посадки, если все полосы освобождаются в текущий момент
+     * @param order Порядок посадки
+     * @param categories Категории самолетов
+     * @param queuedAt Время постановки в очередь, мс
+     * @param leaders Категория последнего самолета на каждой полосе
+     * @param now Текущее время, мс
+     * @return Суммарная задержка, мс
+     */
+    public long totalDelay(int[] order, WakeCategory[] categories, long[] queuedAt, WakeCategory[] leaders,
+                           long now) {
+        return totalDelay(order, categories, queuedAt, leaders, nowTimes(leaders.length, now), now);
+    }
+
+    /**
+     * Суммарная задержка при заданном порядке посадки.
+     * Каждый самолет садится на ту полосу, где это возможно раньше всего.
+     * @param order Порядок посадки
+     * @param categories Категории самолетов
+     * @param queuedAt Время постановки в очередь, мс
+     * @param leaders Категория последнего самолета на каждой полосе
+     * @param leaderTimes Время посадки последнего самолета на каждой полосе, мс
+     * @param now Текущее время, мс
+     * @return Суммарная задержка, мс
+     */
+    public long totalDelay(int[] order, WakeCategory[] categories, long[] queuedAt, WakeCategory[] leaders,
+                           long[] leaderTimes, long now) {
+        long[] lastTime = leaderTimes.clone();
+        WakeCategory[] lastCategory = leaders.clone();
+        long total = 0;
+        for (int plane : order)
+            total += place(plane, categories, queuedAt, lastTime, lastCategory, now);
+        return total;
+    }
+
+    /**
+     * Число посадок, пересчитанных локальным поиском при последнем расчете
+     * @return Объем работы последнего расчета
+     */
+    long getLastPlacements() {
+        return placements;
+    }
+
+    /**
+     * Жадный порядок: на каждом шаге садится самолет, который может сесть раньше всех
+     * @return Начальный порядок посадки
+     */
+    private int[] greedy(WakeCategory[] categories, long[] queuedAt, WakeCategory[] leaders, long[] leaderTimes,
+                         long now) {
+        int n = categories.length;
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        long[] lastTime = leaderTimes.clone();
+        WakeCategory[] lastCategory = leaders.clone();
+        int firstWaiting = 0;   //самый ранний по прибытию еще не посаженный самолет
+        for (int position = 0; position < n; position++) {
+            while (placed[firstWaiting])
+                firstWaiting++;
+            int chosen = -1;
+            long chosenTime = Long.MAX_VALUE;
+            //самый ранний самолет обязан сесть, если он достиг предела смещения
+            int limit = position - firstWaiting >= maxShift ? firstWaiting : Math.min(n - 1, position + maxShift);
+            for (int plane = firstWaiting; plane <= limit; plane++) {
+                if (placed[plane])
+                    continue;
+                int runway = bestRunway(categories[plane], lastTime, lastCategory, now);
+                long time = landingTime(categories[plane], lastTime[runway], lastCategory[runway], now);
+                if (time < chosenTime) {
+                    chosen = plane;
+                    chosenTime = time;
+                }
+            }
+            place(chosen, categories, queuedAt, lastTime, lastCategory, now);
+            placed[chosen] = true;
+            order[position] = chosen;
+        }
+        return order;
+    }
+
+    /**
+     * Посадка самолета на полосу, где это возможно раньше всего
+     * @param plane Индекс самолета
+     * @param categories Категории самолетов
+     * @param queuedAt Время постановки в очередь, мс
+     * @param lastTime Время последней посадки на каждой полосе, обновляется
+     * @param lastCategory Категория последнего самолета на каждой полосе, обновляется
+     * @param now Текущее время, мс
+     * @return Задержка самолета, мс
+     */
+    private static long place(int plane, WakeCategory[] categories, long[] queuedAt, long[] lastTime,
+                              WakeCategory[] lastCategory, long now) {
+        int runway = bestRunway(categories[plane], lastTime, lastCategory, now);
+        long time = landingTime(categories[plane], lastTime[runway], lastCategory[runway], now);
+        lastTime[runway] = time;
+        lastCategory[runway] = categories[plane];
+        return time - queuedAt[plane];
+    }
+
+    private boolean canPlace(int plane, int position) {
+        return Math.abs(position - plane) <= maxShift;
+    }
+
+    private static long[] nowTimes(int runways, long now) {
+        long[] times = new long[runways];
+        Arrays.fill(times, now);
+        return times;
+    }
+
+    private static int bestRunway(WakeCategory category, long[] lastTime, WakeCategory[] lastCategory, long now) {
+        int best = 0;
+        long bestTime = Long.MAX_VALUE;
+        for (int runway = 0; runway < lastTime.length; runway++) {
+            long time = landingTime(category, lastTime[runway], lastCategory[runway], now);
+            if (time < bestTime) {
+                best = runway;
+                bestTime = time;
+            }
+        }
+        return best;
+    }
+
+    private static long landingTime(WakeCategory category, long lastTime, WakeCategory lastCategory, long now) {
+        if (lastCategory == null)
+            return now;
+        return Math.max(now, lastTime + lastCategory.separationBefore(category));
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int temp = order[i];
+        order[i] = order[j];
+        order[j] = temp;
+    }
+}
@@ -0,0 +1,29 @@
+package org.airport;
+
+/**
+ * Категория турбулентности следа самолета
+ */
+public enum WakeCategory {
+    LIGHT,      //легкий
+    MEDIUM,     //средний
+    HEAVY,      //тяжелый
+    SUPER;      //сверхтяжелый
+
+    //минимальные интервалы между посадками на одну полосу, с: строка - впереди идущий, столбец - следующий
+    private static final int[][] SEPARATION = {
+            //LIGHT MEDIUM HEAVY SUPER
+            {   82,    69,    60,   60 },     //LIGHT
+            {  131,    69,    60,   60 },     //MEDIUM
+            {  196,   157,    96,   96 },     //HEAVY
+            {  240,   180,   120,   90 }      //SUPER
+    };
+
+    /**
+     * Минимальный интервал между посадкой этого самолета и следующего за ним
+     * @param follower Категория следующего самолета
+     * @return Интервал в мс
+     */
+    public long separationBefore(WakeCategory follower) {
+        return SEPARATION[ordinal()][follower.ordinal()] * 1000L;
+    }
+}
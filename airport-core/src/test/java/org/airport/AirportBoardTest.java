@@ -0,0 +1,161 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AirportBoardTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Табло, перестраиваемые на месте, совпадают с табло, построенными заново по снимку
+     */
+    @Test
+    void boardsMatchSnapshot() {
+        Random random = new Random(11);
+        Airport airport = new Airport(4);
+        String[] cities = {"Москва", "Казань", "Сочи", "Омск"};
+        List<String> flights = new ArrayList<>();
+        for (int step = 0; step < 5_000; step++) {
+            try {
+                String flight = flights.isEmpty() ? null : flights.get(random.nextInt(flights.size()));
+                switch (random.nextInt(6)) {
+                    case 0:
+                        flight = "F" + step;
+                        airport.registerFlight(flight, cities[random.nextInt(cities.length)]);
+                        flights.add(flight);
+                        break;
+                    case 1:
+                        if (flight != null)
+                            airport.arriveAtAirport(flight, step);
+                        break;
+                    case 2:
+                        if (flight != null)
+                            airport.landAtAirport(flight, airport.snapshot().getPlanes().get(flight).getRunwayNumber());
+                        break;
+                    case 3:
+                        if (flight != null)
+                            airport.readyForBoarding(flight, cities[random.nextInt(cities.length)]);
+                        break;
+                    default:
+                        if (flight != null) {
+                            airport.takeOff(flight, step);
+                            flights.remove(flight);
+                        }
+                        break;
+                }
+            } catch (AirportException e) {
+                //недопустимые переходы статуса пропускаются
+            }
+            for (BoardOrder order : BoardOrder.values()) {
+                assertBoard(airport, airport.getArrivalsBoard(order), false);
+                assertBoard(airport, airport.getDeparturesBoard(order), true);
+            }
+        }
+    }
+
+    /**
+     * Выданная проекция не меняется после изменения аэропорта, а строки
+     * неизменившихся рейсов переходят в новую проекцию
+     */
+    @Test
+    void projectionsStayImmutableAndShareRows() {
+        Airport airport = new Airport(1);
+        airport.registerFlight("A", "Москва");
+        airport.registerFlight("B", "Казань");
+        BoardProjection board = airport.getArrivalsBoard(BoardOrder.FLIGHT);
+        assertSame(board, airport.getArrivalsBoard(BoardOrder.FLIGHT));
+        BoardRow first = board.getRows().get(0);
+        BoardRow second = board.getRows().get(1);
+
+        airport.arriveAtAirport("A", 0);
+        BoardProjection next = airport.getArrivalsBoard(BoardOrder.FLIGHT);
+
+        assertNotSame(board, next);
+        assertEquals(airport.getVersion(), next.getVersion());
+        assertTrue(board.getVersion() < next.getVersion());
+        assertSame(first, board.getRows().get(0));
+        assertEquals(PlaneStatus.DUE.toString(), first.getStatusName());
+        assertEquals("", first.getRunwayText());
+        assertEquals("1", next.getRows().get(0).getRunwayText());
+        assertSame(second, next.getRows().get(1));
+        assertThrows(UnsupportedOperationException.class, () -> next.getRows().set(0, second));
+    }
+
+    /**
+     * Самолет, полученный из листа ожидания, не достается после взлета другому рейсу
+     */
+    @Test
+    void sharedPlaneIsNotReused() {
+        Airport airport = new Airport(1);
+        airport.registerFlight("A", "Москва");
+        Plane shared = airport.getArrivals().iterator().next();
+        airport.arriveAtAirport("A", 0);
+        airport.landAtAirport("A", 1);
+        airport.readyForBoarding("A", "Сочи");
+        assertEquals(1, airport.getDepartures().size());
+        assertTrue(airport.getDepartures().contains(shared));
+        airport.takeOff("A", 1_000);
+        airport.registerFlight("B", "Казань");
+
+        assertEquals("A", shared.getFlightNumber());
+        assertEquals(PlaneStatus.DEPARTING, shared.getStatus());
+        assertEquals(0, airport.getDepartures().size());
+        assertFalse(airport.getArrivals().contains(shared));
+    }
+
+    /**
+     * Табло аэропорта, загруженного из файла, строится по прочитанным самолетам
+     */
+    @Test
+    void loadedAirportHasBoardRows() throws Exception {
+        Airport saved = new Airport(1);
+        saved.registerFlight("A", "Москва");
+        saved.registerFlight("B", "Казань");
+        saved.arriveAtAirport("A", 0);
+        String file = dir.resolve("airport.dat").toString();
+        saved.save(file);
+
+        Airport airport = new Airport(file);
+        for (BoardOrder order : BoardOrder.values())
+            assertBoard(airport, airport.getArrivalsBoard(order), false);
+    }
+
+    private static void assertBoard(Airport airport, BoardProjection board, boolean departing) {
+        List<PlaneRecord> expected = new ArrayList<>();
+        for (PlaneRecord record : airport.snapshot().getPlanes().values()) {
+            if ((record.getStatus() == PlaneStatus.DEPARTING) == departing)
+                expected.add(record);
+        }
+        assertEquals(airport.getVersion(), board.getVersion());
+        assertEquals(expected.size(), board.getRows().size());
+        List<String> shown = new ArrayList<>();
+        for (BoardRow row : board.getRows()) {
+            PlaneRecord record = airport.snapshot().getPlanes().get(row.getFlightNumber());
+            assertEquals(record.getCity(), row.getCity());
+            assertEquals(record.getStatus(), row.getStatus());
+            assertEquals(record.isAllocatedRunway() ? Integer.toString(record.getRunwayNumber()) : "",
+                    row.getRunwayText());
+            shown.add(row.getFlightNumber());
+        }
+        if (board.getOrder().getComparator() != null) {
+            for (int i = 1; i < board.getRows().size(); i++)
+                assertTrue(board.getOrder().getComparator()
+                        .compare(board.getRows().get(i - 1), board.getRows().get(i)) <= 0, board.getOrder().name());
+        }
+        assertEquals(expected.size(), new HashSet<>(shown).size());
+    }
+}
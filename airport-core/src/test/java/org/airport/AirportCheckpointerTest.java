@@ -0,0 +1,68 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AirportCheckpointerTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Состояние, восстановленное из основного файла и файла изменений, совпадает с живым
+     */
+    @Test
+    void restoresCheckpointedState() throws Exception {
+        String file = dir.resolve("airport.dat").toString();
+        Airport airport = new Airport(2);
+        AirportCheckpointer checkpointer = new AirportCheckpointer(file, 1000);
+        checkpointer.start(airport, 5);
+        for (int i = 0; i < 20; i++) {
+            airport.registerFlight("F" + i, "Город" + i);
+            airport.arriveAtAirport("F" + i, 1_000 + i);
+            if (i % 4 == 3)
+                Thread.sleep(10);
+        }
+        airport.landAtAirport("F0", 1);
+        airport.readyForBoarding("F0", "Париж");
+        airport.takeOff("F0", 5_000);
+        checkpointer.close();
+
+        assertNull(checkpointer.getLastError());
+        assertTrue(airport.snapshot().sameState(AirportCheckpointer.restore(file).snapshot()));
+    }
+
+    /**
+     * Если начальное состояние не удалось записать, ошибка передается обработчику,
+     * изменения копятся в журнале и попадают в файл после успешной записи
+     */
+    @Test
+    void keepsChangesWhileBaseCannotBeWritten() throws Exception {
+        Path missing = dir.resolve("missing");
+        String file = missing.resolve("airport.dat").toString();
+        CountDownLatch failed = new CountDownLatch(1);
+        Airport airport = new Airport(1);
+        airport.registerFlight("A1", "Москва");
+        AirportCheckpointer checkpointer = new AirportCheckpointer(file, 1000, e -> failed.countDown());
+        checkpointer.start(airport, 5);
+        airport.arriveAtAirport("A1", 1_000);
+        airport.registerFlight("A2", "Казань");
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertNotNull(checkpointer.getLastError());
+        airport.arriveAtAirport("A2", 2_000);
+        Files.createDirectory(missing);
+        airport.landAtAirport("A1", 1);
+        checkpointer.close();
+
+        assertTrue(airport.snapshot().sameState(AirportCheckpointer.restore(file).snapshot()));
+    }
+}
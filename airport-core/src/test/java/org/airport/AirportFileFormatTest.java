@@ -0,0 +1,72 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AirportFileFormatTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Файл, сохраненный исходным приложением, читается текущей версией.
+     * В файле две полосы: SU100 готов к вылету в Париж с полосы 1, SU200 получил полосу 2,
+     * SU300 ожидает в очереди, SU400 еще не прибыл.
+     */
+    @Test
+    void loadsFileSavedByOriginalApplication() throws Exception {
+        Path file = dir.resolve("airport.dat");
+        try (InputStream in = getClass().getResourceAsStream("baseline-airport.dat")) {
+            assertNotNull(in);
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Airport airport = new Airport(file.toString());
+        AirportSnapshot snapshot = airport.snapshot();
+
+        assertEquals(2, snapshot.getNumberOfRunways());
+        assertEquals(4, snapshot.getPlanes().size());
+        assertEquals(1, snapshot.getCirclingQ().size());
+        assertEquals("SU300", snapshot.getCirclingQ().get(0));
+
+        PlaneRecord departing = snapshot.getPlanes().get("SU100");
+        assertEquals(PlaneStatus.DEPARTING, departing.getStatus());
+        assertEquals(1, departing.getRunwayNumber());
+        assertEquals(WakeCategory.MEDIUM, departing.getWakeCategory());
+        assertEquals(0, departing.getStatusTime(PlaneStatus.DUE));
+
+        PlaneRecord due = snapshot.getPlanes().get("SU400");
+        assertEquals(due.getCity(), due.getOrigin());
+        assertTrue(snapshot.getReservations().isEmpty());
+
+        // Состояние после чтения полностью рабочее: взлет освобождает полосу для очереди
+        Plane next = airport.takeOff("SU100");
+        assertEquals("SU300", next.getFlightNumber());
+        assertEquals(1, airport.reserveLanding("SU400", 5_000, 6_000, 1_000));
+    }
+
+    /**
+     * Файл, сохраненный текущей версией, читается обратно без потерь
+     */
+    @Test
+    void roundTripsCurrentFormat() throws Exception {
+        Airport airport = new Airport(2);
+        airport.registerFlight("H1", "Дубай", WakeCategory.HEAVY);
+        airport.registerFlight("L1", "Тверь", WakeCategory.LIGHT);
+        airport.arriveAtAirport("H1");
+        airport.reserveLanding("L1", 5_000, 6_000, 1_000);
+        String file = dir.resolve("current.dat").toString();
+        airport.save(file);
+
+        Airport loaded = new Airport(file);
+        assertTrue(airport.snapshot().sameState(loaded.snapshot()));
+        assertEquals(WakeCategory.HEAVY, loaded.snapshot().getPlanes().get("H1").getWakeCategory());
+    }
+}
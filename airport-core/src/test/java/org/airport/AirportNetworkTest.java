@@ -0,0 +1,143 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AirportNetworkTest {
+
+    /**
+     * Команды, поданные после закрытия сети, завершаются ошибкой, а не зависают
+     */
+    @Test
+    void rejectsCommandsAfterClose() throws Exception {
+        AirportNetwork network = new AirportNetwork();
+        network.addAirport("A", 1);
+        network.registerFlight("A", "F1", "X").get(5, TimeUnit.SECONDS);
+        network.close();
+
+        CompletableFuture<Void> late = network.registerFlight("A", "F2", "X");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof AirportException);
+        assertThrows(AirportException.class, () -> network.addAirport("B", 1));
+    }
+
+    /**
+     * Команды, принятые до закрытия, выполняются
+     */
+    @Test
+    void closeRunsAcceptedCommands() throws Exception {
+        AirportNetwork network = new AirportNetwork();
+        network.addAirport("A", 1);
+        List<CompletableFuture<Void>> accepted = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            accepted.add(network.registerFlight("A", "F" + i, "X"));
+        network.close();
+        for (CompletableFuture<Void> future : accepted)
+            future.get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Встречные передачи рейсов между аэропортами с очередями единичной емкости
+     * не блокируют потоки аэропортов и доходят до аэропорта назначения
+     */
+    @Test
+    void handOffsSurviveFullQueues() throws Exception {
+        int flights = 200;
+        try (AirportNetwork network = new AirportNetwork(1)) {
+            network.addAirport("A", flights);
+            network.addAirport("B", flights);
+            List<CompletableFuture<Void>> boarded = new ArrayList<>();
+            for (int i = 0; i < flights; i++) {
+                String from = i % 2 == 0 ? "A" : "B";
+                String to = i % 2 == 0 ? "B" : "A";
+                String flight = "F" + i;
+                network.registerFlight(from, flight, "X");
+                network.arriveAtAirport(from, flight);
+                network.landAtAirport(from, flight, 1 + i / 2);
+                boarded.add(network.readyForBoarding(from, flight, to));
+            }
+            for (CompletableFuture<Void> future : boarded)
+                future.get(10, TimeUnit.SECONDS);
+            int registered = network.submit("A", airport -> airport.getArrivals().size()).get(5, TimeUnit.SECONDS)
+                    + network.submit("B", airport -> airport.getArrivals().size()).get(5, TimeUnit.SECONDS);
+            assertEquals(flights, registered);
+        }
+    }
+
+    /**
+     * Рейс, переданный в аэропорт назначения, сохраняет категорию турбулентности следа
+     */
+    @Test
+    void handOffKeepsWakeCategory() throws Exception {
+        try (AirportNetwork network = new AirportNetwork()) {
+            network.addAirport("A", 1);
+            network.addAirport("B", 1);
+            network.registerFlight("A", "H1", "X", WakeCategory.HEAVY);
+            network.arriveAtAirport("A", "H1");
+            network.landAtAirport("A", "H1", 1);
+            network.readyForBoarding("A", "H1", "B").get(5, TimeUnit.SECONDS);
+            WakeCategory category = network.submit("B",
+                    airport -> airport.snapshot().getPlanes().get("H1").getWakeCategory()).get(5, TimeUnit.SECONDS);
+            assertEquals(WakeCategory.HEAVY, category);
+        }
+    }
+
+    /**
+     * Продолжение клиента, выполняемое в потоке аэропорта, ждет места в очереди, как и любой
+     * внешний поток, поэтому очередь другого аэропорта не растет сверх емкости
+     */
+    @Test
+    void clientContinuationOnAirportThreadIsBounded() throws Exception {
+        try (AirportNetwork network = new AirportNetwork(1)) {
+            network.addAirport("A", 1);
+            network.addAirport("B", 1);
+            CountDownLatch releaseA = new CountDownLatch(1);
+            CountDownLatch releaseB = new CountDownLatch(1);
+            network.submit("B", airport -> await(releaseB));
+            List<CompletableFuture<Void>> submitted = new CopyOnWriteArrayList<>();
+            Thread[] continuationThread = new Thread[1];
+            CompletableFuture<Void> continuation = network.submit("A", airport -> await(releaseA)).thenRun(() -> {
+                continuationThread[0] = Thread.currentThread();
+                for (int i = 0; i < 3; i++)
+                    submitted.add(network.registerFlight("B", "F" + i, "X"));
+            });
+            try {
+                releaseA.countDown();
+                long deadline = System.currentTimeMillis() + 5_000;
+                while ((continuationThread[0] == null || continuationThread[0].getState() != Thread.State.WAITING)
+                        && System.currentTimeMillis() < deadline)
+                    Thread.onSpinWait();
+                assertEquals("airport-A", continuationThread[0].getName());
+                assertEquals(Thread.State.WAITING, continuationThread[0].getState());
+                assertTrue(submitted.size() < 3, "принято команд сверх емкости: " + submitted.size());
+            } finally {
+                releaseB.countDown();
+            }
+            continuation.get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<Void> future : submitted)
+                future.get(5, TimeUnit.SECONDS);
+            assertEquals(3, (int) network.submit("B", airport -> airport.getArrivals().size())
+                    .get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static Void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,121 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AirportReservationTest {
+
+    /**
+     * После окончания брони освободившуюся полосу получает самолет из очереди,
+     * а новый самолет встает за ним, а не обгоняет его
+     */
+    @Test
+    void queueIsServedBeforeNewArrivalAfterWindow() {
+        Airport airport = new Airport(1);
+        airport.registerFlight("R", "Москва");
+        airport.registerFlight("B", "Казань");
+        airport.registerFlight("C", "Сочи");
+        airport.reserveLanding("R", 1_000, 5_000, 0);
+
+        assertEquals(0, airport.arriveAtAirport("B", 2_000));
+        assertEquals(0, airport.arriveAtAirport("C", 6_000));
+
+        AirportSnapshot snapshot = airport.snapshot();
+        assertEquals(1, snapshot.getPlanes().get("B").getRunwayNumber());
+        assertEquals(List.of("C"), snapshot.getCirclingQ());
+        assertNull(airport.getReservation("R"));
+    }
+
+    /**
+     * Рейс, ожидающий в очереди, получает свою забронированную полосу, когда она освобождается
+     */
+    @Test
+    void queuedHolderGetsReservedRunway() {
+        Airport airport = new Airport(1);
+        airport.registerFlight("A", "Москва");
+        airport.registerFlight("B", "Казань");
+        airport.registerFlight("R", "Сочи");
+        airport.reserveLanding("R", 100_000, 500_000, 0);
+        assertEquals(1, airport.arriveAtAirport("A", 0));
+        assertEquals(0, airport.arriveAtAirport("B", 400));
+        assertEquals(0, airport.arriveAtAirport("R", 500));
+        airport.landAtAirport("A", 1);
+        airport.readyForBoarding("A", "Париж");
+
+        assertEquals("R", airport.takeOff("A", 200_000).getFlightNumber());
+        assertEquals(List.of("B"), airport.snapshot().getCirclingQ());
+    }
+
+    /**
+     * Легкий самолет не получает полосу раньше интервала турбулентности после тяжелого,
+     * даже если полоса уже свободна, и садится по первой команде после интервала
+     */
+    @Test
+    void dispatchWaitsForWakeSeparation() {
+        Airport airport = new Airport(1);
+        airport.registerFlight("H", "Москва", WakeCategory.HEAVY);
+        airport.registerFlight("L", "Казань", WakeCategory.LIGHT);
+        airport.registerFlight("M", "Сочи", WakeCategory.MEDIUM);
+        assertEquals(1, airport.arriveAtAirport("H", 0));
+        airport.landAtAirport("H", 1);
+        airport.readyForBoarding("H", "Париж");
+        assertNull(airport.takeOff("H", 10_000));
+
+        assertEquals(0, airport.arriveAtAirport("L", 20_000));
+        assertEquals(List.of("L"), airport.snapshot().getCirclingQ());
+
+        assertEquals(0, airport.arriveAtAirport("M", 196_000));
+        AirportSnapshot snapshot = airport.snapshot();
+        assertEquals(1, snapshot.getPlanes().get("L").getRunwayNumber());
+        assertEquals(List.of("M"), snapshot.getCirclingQ());
+    }
+
+    /**
+     * Отмена брони публикует событие табло и отдает полосу ожидающему самолету
+     */
+    @Test
+    void cancellationPublishesEventAndServesQueue() throws Exception {
+        Airport airport = new Airport(1);
+        airport.registerFlight("R", "Москва");
+        airport.registerFlight("B", "Казань");
+        airport.reserveLanding("R", 1_000, 5_000, 0);
+        assertEquals(0, airport.arriveAtAirport("B", 2_000));
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        airport.subscribe(new Flow.Subscriber<BoardEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(BoardEvent event) {
+                if (event.getType() == BoardEventType.RESERVATION_CANCELLED && event.getFlightNumber().equals("R"))
+                    cancelled.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        long version = airport.getVersion();
+        airport.cancelReservation("R", 3_000);
+
+        assertTrue(airport.getVersion() > version);
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(1, airport.snapshot().getPlanes().get("B").getRunwayNumber());
+        assertTrue(airport.snapshot().getCirclingQ().isEmpty());
+    }
+}
@@ -0,0 +1,180 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardPublisherTest {
+    @TempDir
+    Path dir;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();  //задачи доставки, выполняемые тестом вручную
+
+    /**
+     * Подписчик получает не больше событий, чем запросил, остальные ждут следующего запроса
+     */
+    @Test
+    void deliversOnlyRequestedEvents() {
+        BoardPublisher publisher = new BoardPublisher(tasks::add);
+        Recorder recorder = new Recorder(2);
+        publisher.subscribe(recorder);
+        runTasks();
+        for (String flight : List.of("A1", "A2", "A3", "A4"))
+            publisher.publish(event(BoardEventType.REGISTERED, flight));
+        runTasks();
+        assertEquals(List.of("A1", "A2"), recorder.flights());
+
+        recorder.subscription.request(1);
+        runTasks();
+        assertEquals(List.of("A1", "A2", "A3"), recorder.flights());
+    }
+
+    /**
+     * Пока спрос равен нулю, события одного рейса схлопываются до последнего,
+     * и рейс встает в конец очереди доставки
+     */
+    @Test
+    void coalescesEventsOfOneFlightWithoutDemand() {
+        BoardPublisher publisher = new BoardPublisher(tasks::add);
+        Recorder recorder = new Recorder(0);
+        publisher.subscribe(recorder);
+        runTasks();
+        publisher.publish(event(BoardEventType.REGISTERED, "A1"));
+        publisher.publish(event(BoardEventType.REGISTERED, "A2"));
+        publisher.publish(event(BoardEventType.RUNWAY_ASSIGNED, "A1"));
+        runTasks();
+        assertTrue(recorder.events.isEmpty());
+
+        recorder.subscription.request(10);
+        runTasks();
+        assertEquals(List.of("A2", "A1"), recorder.flights());
+        assertEquals(BoardEventType.RUNWAY_ASSIGNED, recorder.events.get(1).getType());
+    }
+
+    /**
+     * После отмены подписки события не доставляются, а издатель остается без подписчиков
+     */
+    @Test
+    void cancelStopsDelivery() {
+        BoardPublisher publisher = new BoardPublisher(tasks::add);
+        Recorder recorder = new Recorder(0);
+        publisher.subscribe(recorder);
+        runTasks();
+        publisher.publish(event(BoardEventType.REGISTERED, "A1"));
+        recorder.subscription.cancel();
+        assertFalse(publisher.hasSubscribers());
+
+        recorder.subscription.request(10);
+        publisher.publish(event(BoardEventType.REGISTERED, "A2"));
+        runTasks();
+        assertTrue(recorder.events.isEmpty());
+        assertNull(recorder.error);
+    }
+
+    /**
+     * Запрос неположительного числа событий завершает подписку ошибкой
+     */
+    @Test
+    void nonPositiveRequestSignalsError() {
+        BoardPublisher publisher = new BoardPublisher(tasks::add);
+        Recorder recorder = new Recorder(1);
+        publisher.subscribe(recorder);
+        runTasks();
+        recorder.subscription.request(0);
+        runTasks();
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertFalse(publisher.hasSubscribers());
+
+        publisher.publish(event(BoardEventType.REGISTERED, "A1"));
+        runTasks();
+        assertTrue(recorder.events.isEmpty());
+    }
+
+    /**
+     * Загрузка состояния рассылает событие всего табло, которое заменяет недоставленные события рейсов
+     */
+    @Test
+    void loadPublishesRefresh() throws Exception {
+        String file = dir.resolve("airport.dat").toString();
+        Airport saved = new Airport(1);
+        saved.registerFlight("B1", "Казань");
+        saved.save(file);
+
+        Airport airport = new Airport(1, tasks::add);
+        Recorder recorder = new Recorder(0);
+        airport.subscribe(recorder);
+        runTasks();
+        airport.registerFlight("A1", "Москва");
+        airport.load(file);
+        recorder.subscription.request(10);
+        runTasks();
+
+        assertEquals(1, recorder.events.size());
+        assertEquals(BoardEventType.REFRESHED, recorder.events.get(0).getType());
+        assertNull(recorder.events.get(0).getFlightNumber());
+        assertEquals("B1", airport.getArrivalsBoard(BoardOrder.FLIGHT).getRows().get(0).getFlightNumber());
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null)
+            task.run();
+    }
+
+    private static BoardEvent event(BoardEventType type, String flight) {
+        return new BoardEvent(type, new Plane(flight, "Москва"));
+    }
+
+    /**
+     * Подписчик, запоминающий полученные события
+     */
+    private static class Recorder implements Flow.Subscriber<BoardEvent> {
+        private final long initialDemand;                   //число событий, запрашиваемое при подписке
+        private final List<BoardEvent> events = new ArrayList<>();  //полученные события
+        private Flow.Subscription subscription;             //подписка
+        private Throwable error;                            //полученная ошибка
+
+        Recorder(long initialDemandIn) {
+            initialDemand = initialDemandIn;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscriptionIn) {
+            subscription = subscriptionIn;
+            if (initialDemand > 0)
+                subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(BoardEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        List<String> flights() {
+            List<String> flights = new ArrayList<>();
+            for (BoardEvent event : events)
+                flights.add(event.getFlightNumber());
+            return flights;
+        }
+    }
+}
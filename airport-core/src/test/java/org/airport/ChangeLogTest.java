@@ -0,0 +1,240 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Блоки изменений, примененные к начальному снимку, дают текущее состояние аэропорта
+     */
+    @Test
+    void blocksReproduceLiveState() throws IOException {
+        Airport airport = new Airport(2);
+        airport.registerFlight("A1", "Москва");
+        AirportSnapshot base = airport.snapshot();
+        ChangeLog log = airport.startChangeLog();
+
+        airport.registerFlight("A2", "Казань", WakeCategory.HEAVY);
+        airport.registerFlight("A3", "Сочи");
+        airport.registerFlight("A4", "Омск");
+        airport.arriveAtAirport("A1", 1_000);
+        airport.arriveAtAirport("A2", 1_000);
+        byte[] first = write(log.drain());
+
+        airport.arriveAtAirport("A3", 2_000);
+        airport.landAtAirport("A1", 1);
+        airport.readyForBoarding("A1", "Париж");
+        airport.reserveLanding("A4", 10_000, 11_000, 2_000);
+        airport.takeOff("A1", 3_000);
+        byte[] second = write(log.drain());
+        assertTrue(log.isEmpty());
+
+        assertTrue(airport.snapshot().sameState(apply(base, first, second)));
+        assertFalse(airport.snapshot().sameState(apply(base, first)));
+    }
+
+    /**
+     * Повторные изменения одного рейса схлопываются до последнего состояния
+     */
+    @Test
+    void coalescesRepeatedChanges() throws IOException {
+        Airport airport = new Airport(1);
+        airport.registerFlight("A1", "Москва");
+        airport.registerFlight("A2", "Казань");
+        ChangeLog log = airport.startChangeLog();
+        airport.arriveAtAirport("A1", 1_000);
+        airport.landAtAirport("A1", 1);
+        airport.readyForBoarding("A1", "Париж");
+        airport.takeOff("A1", 2_000);
+        airport.registerFlight("A1", "Сочи");
+        airport.arriveAtAirport("A1", 3_000);
+
+        DataInputStream block = new DataInputStream(new ByteArrayInputStream(write(log.drain())));
+        assertEquals(1, block.readInt(), "в блоке должна быть одна запись о рейсе");
+    }
+
+    /**
+     * Перестановка очереди записывается в журнал один раз, а не снятием и постановкой
+     * каждого рейса очереди при каждом прибытии
+     */
+    @Test
+    void reorderedQueueIsLoggedOnce() throws IOException {
+        Airport airport = new Airport(2);
+        AirportSnapshot base = airport.snapshot();
+        ChangeLog log = airport.startChangeLog();
+        WakeCategory[] categories = WakeCategory.values();
+        for (int i = 0; i < 300; i++) {
+            airport.registerFlight("F" + i, "Город", categories[i * 7 % categories.length]);
+            airport.arriveAtAirport("F" + i, 1_000L * i);
+        }
+        byte[] block = write(log.drain());
+
+        assertTrue(airport.snapshot().sameState(apply(base, block)));
+        //300 записей о рейсах и одна очередь; при записи каждой перестановки блок рос бы квадратично
+        assertTrue(block.length < 300 * 100, "размер блока " + block.length);
+    }
+
+    /**
+     * Изменения, возвращенные после неудачной записи, встают перед более новыми
+     */
+    @Test
+    void requeuedBatchPrecedesNewerChanges() throws IOException {
+        Airport airport = new Airport(1);
+        for (String flight : Arrays.asList("A1", "A2", "A3"))
+            airport.registerFlight(flight, "Москва");
+        AirportSnapshot base = airport.snapshot();
+        ChangeLog log = airport.startChangeLog();
+
+        airport.arriveAtAirport("A1", 1_000);
+        airport.arriveAtAirport("A2", 1_000);
+        ChangeLog failed = log.drain();
+
+        airport.arriveAtAirport("A3", 2_000);
+        airport.landAtAirport("A1", 1);
+        airport.readyForBoarding("A1", "Париж");
+        airport.takeOff("A1", 3_000);
+        log.requeue(failed);
+
+        assertTrue(airport.snapshot().sameState(apply(base, write(log.drain()))));
+
+        //перестановка очереди в новых изменениях заменяет операции с очередью из возвращенных
+        airport.registerFlight("H1", "Дубай", WakeCategory.HEAVY);
+        airport.registerFlight("L1", "Тверь", WakeCategory.LIGHT);
+        airport.registerFlight("L2", "Тверь", WakeCategory.LIGHT);
+        base = airport.snapshot();
+        airport.arriveAtAirport("H1", 4_000);
+        failed = log.drain();
+        airport.arriveAtAirport("L1", 4_000);
+        airport.arriveAtAirport("L2", 4_000);
+        log.requeue(failed);
+
+        assertTrue(airport.snapshot().sameState(apply(base, write(log.drain()))));
+    }
+
+    /**
+     * Фоновый поток, забирающий журнал посреди команды, ждет ее конца,
+     * поэтому записи одной команды не разделяются между блоками
+     */
+    @Test
+    void drainWaitsForCommandToFinish() throws Exception {
+        Airport airport = new Airport(1);
+        airport.registerFlight("A1", "Москва");
+        airport.registerFlight("A2", "Казань");
+        airport.arriveAtAirport("A1", 1_000);
+        airport.arriveAtAirport("A2", 2_000);
+        airport.landAtAirport("A1", 1);
+        airport.readyForBoarding("A1", "Париж");
+        AirportSnapshot base = airport.snapshot();
+        ChangeLog log = airport.startChangeLog();
+
+        ChangeLog[] drained = new ChangeLog[1];
+        Thread drainer = new Thread(() -> drained[0] = log.drain());
+        Thread.State[] stateInCommand = new Thread.State[1];
+        airport.setArchive(new FlightArchive(dir.resolve("archive").toString(), 10) {
+            @Override
+            public synchronized void append(ArchivedFlight flight) throws IOException {
+                //взлет уже начался: журнал нужно забрать до того, как команда его допишет
+                drainer.start();
+                long deadline = System.currentTimeMillis() + 5_000;
+                while (drainer.getState() != Thread.State.BLOCKED && drainer.isAlive()
+                        && System.currentTimeMillis() < deadline)
+                    Thread.onSpinWait();
+                stateInCommand[0] = drainer.getState();
+                super.append(flight);
+            }
+        });
+        assertEquals("A2", airport.takeOff("A1", 100_000).getFlightNumber());
+        drainer.join();
+
+        assertEquals(Thread.State.BLOCKED, stateInCommand[0]);
+        assertTrue(airport.snapshot().sameState(apply(base, write(drained[0]))));
+        assertTrue(log.isEmpty());
+    }
+
+    /**
+     * Недописанный последний блок не применяется ни частично, ни целиком,
+     * а слияние сохраняет все полные блоки перед ним
+     */
+    @Test
+    void tornLastBlockIsIgnored() throws Exception {
+        Airport airport = new Airport(2);
+        airport.registerFlight("A1", "Москва");
+        airport.registerFlight("A2", "Казань");
+        String file = dir.resolve("airport.dat").toString();
+        airport.save(file);
+        ChangeLog log = airport.startChangeLog();
+
+        airport.arriveAtAirport("A1", 1_000);
+        byte[] first = write(log.drain());
+        AirportSnapshot afterFirst = airport.snapshot();
+        airport.arriveAtAirport("A2", 2_000);
+        byte[] second = write(log.drain());
+
+        DataInputStream torn = new DataInputStream(new ByteArrayInputStream(Arrays.copyOf(second, second.length - 3)));
+        Map<String, PlaneRecord> planes = new LinkedHashMap<>(afterFirst.getPlanes());
+        assertThrows(EOFException.class,
+                () -> ChangeLog.applyFrom(torn, planes, new ArrayList<>(), afterFirst.getRunways(), new ArrayList<>()));
+        assertTrue(planes.equals(afterFirst.getPlanes()));
+
+        try (FileOutputStream out = new FileOutputStream(file + ".delta")) {
+            out.write(first);
+            out.write(second, 0, second.length - 3);
+        }
+        AirportCheckpointer.compact(file);
+        assertFalse(Files.exists(dir.resolve("airport.dat.delta")));
+        assertTrue(afterFirst.sameState(new Airport(file).snapshot()));
+    }
+
+    /**
+     * Запись блока изменений в массив байтов
+     * @param batch Изменения
+     * @return Блок
+     */
+    static byte[] write(ChangeLog batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            batch.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Применение блоков изменений к снимку
+     * @param base Начальный снимок
+     * @param blocks Блоки изменений
+     * @return Снимок после применения блоков
+     */
+    static AirportSnapshot apply(AirportSnapshot base, byte[]... blocks) throws IOException {
+        Map<String, PlaneRecord> planes = new LinkedHashMap<>(base.getPlanes());
+        List<String> circlingQ = new ArrayList<>(base.getCirclingQ());
+        List<Reservation> reservations = new ArrayList<>(base.getReservations());
+        RunwayRecord[] runways = base.getRunways();
+        for (byte[] block : blocks)
+            ChangeLog.applyFrom(new DataInputStream(new ByteArrayInputStream(block)), planes, circlingQ, runways,
+                    reservations);
+        return new AirportSnapshot(base.getVersion(), planes, circlingQ, runways, reservations);
+    }
+}
@@ -0,0 +1,171 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandReplayTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Записанный сеанс, включая команды с ошибками, воспроизводится в то же конечное состояние
+     */
+    @Test
+    void replaysRecordedSession() throws Exception {
+        Path commands = dir.resolve("commands.log");
+        Airport airport = new Airport(2);
+        try (CommandRecorder recorder = new CommandRecorder(commands.toString())) {
+            airport.setRecorder(recorder);
+            airport.registerFlight("SU\t1", "Москва\\Внуково", WakeCategory.HEAVY);
+            airport.registerFlight("SU2", "Казань", WakeCategory.LIGHT);
+            airport.registerFlight("SU3", "Сочи");
+            airport.registerFlight("SU4", "Омск");
+            airport.reserveLanding("SU4", 50_000, 60_000, 1_000);
+            airport.arriveAtAirport("SU\t1", 2_000);
+            airport.arriveAtAirport("SU2", 3_000);
+            airport.arriveAtAirport("SU3", 4_000);
+            assertThrows(AirportException.class, () -> airport.landAtAirport("SU2", 1));
+            airport.landAtAirport("SU\t1", 1);
+            airport.readyForBoarding("SU\t1", "Париж");
+            airport.takeOff("SU\t1", 5_000);
+            airport.cancelReservation("SU4");
+            assertThrows(AirportException.class, () -> airport.cancelReservation("SU4"));
+        }
+
+        CommandReplay replay = new CommandReplay();
+        replay.replay(commands);
+        assertEquals(14, replay.getOperations());
+        assertEquals(2, replay.getFailures());
+        assertTrue(airport.snapshot().sameState(replay.getAirport().snapshot()));
+    }
+
+    /**
+     * Очередь, переставленная с учетом турбулентности следа, при каждом воспроизведении
+     * получается той же, что и при записи: порядок не зависит от скорости машины
+     */
+    @Test
+    void replaysWakeSequencedQueueDeterministically() throws Exception {
+        Path commands = dir.resolve("wake.log");
+        Airport airport = new Airport(2);
+        WakeCategory[] categories = WakeCategory.values();
+        java.util.Random random = new java.util.Random(7);
+        try (CommandRecorder recorder = new CommandRecorder(commands.toString())) {
+            airport.setRecorder(recorder);
+            long now = 0;
+            for (int i = 0; i < 400; i++) {
+                String flight = "F" + i;
+                now += random.nextInt(30_000);
+                airport.registerFlight(flight, "Город", categories[random.nextInt(categories.length)]);
+                int runway = airport.arriveAtAirport(flight, now);
+                if (runway != 0 && random.nextInt(3) == 0) {
+                    airport.landAtAirport(flight, runway);
+                    airport.readyForBoarding(flight, "Город");
+                    airport.takeOff(flight, now);
+                }
+            }
+        }
+        assertTrue(airport.snapshot().getCirclingQ().size() > 100);
+
+        for (int run = 0; run < 10; run++) {
+            CommandReplay replay = new CommandReplay();
+            replay.replay(commands);
+            assertEquals(0, replay.getFailures());
+            assertEquals(airport.snapshot().getCirclingQ(), replay.getAirport().snapshot().getCirclingQ());
+            assertTrue(airport.snapshot().sameState(replay.getAirport().snapshot()));
+        }
+    }
+
+    /**
+     * Время каждого перехода статуса записывается вместе с командой, поэтому после воспроизведения
+     * совпадают и времена рейсов, и строки архива взлетевших рейсов
+     */
+    @Test
+    void replaysStatusTimes() throws Exception {
+        Path commands = dir.resolve("times.log");
+        Airport airport = new Airport(1);
+        List<ArchivedFlight> recorded = new ArrayList<>();
+        try (CommandRecorder recorder = new CommandRecorder(commands.toString());
+             FlightArchive archive = new FlightArchive(dir.resolve("recorded").toString(), 10)) {
+            airport.setRecorder(recorder);
+            airport.setArchive(archive);
+            airport.registerFlight("A1", "Москва", WakeCategory.MEDIUM, 1_000);
+            airport.registerFlight("A2", "Казань", WakeCategory.LIGHT, 2_000);
+            airport.arriveAtAirport("A1", 10_000);
+            airport.arriveAtAirport("A2", 11_000);
+            airport.landAtAirport("A1", 1, 20_000);
+            airport.readyForBoarding("A1", "Париж", 30_000);
+            airport.takeOff("A1", 100_000);
+            archive.flush();
+            archive.scan(0, Long.MAX_VALUE, recorded::add);
+        }
+
+        Airport replayed = new Airport(1);
+        List<ArchivedFlight> replayedRows = new ArrayList<>();
+        try (FlightArchive archive = new FlightArchive(dir.resolve("replayed").toString(), 10)) {
+            replayed.setArchive(archive);
+            CommandReplay replay = new CommandReplay(replayed);
+            replay.replay(commands);
+            archive.flush();
+            archive.scan(0, Long.MAX_VALUE, replayedRows::add);
+        }
+        for (PlaneRecord plane : airport.snapshot().getPlanes().values()) {
+            PlaneRecord other = replayed.snapshot().getPlanes().get(plane.getFlightNumber());
+            for (PlaneStatus status : PlaneStatus.values())
+                assertEquals(plane.getStatusTime(status), other.getStatusTime(status), plane + " " + status);
+        }
+        assertEquals(1, recorded.size());
+        assertEquals(1, replayedRows.size());
+        ArchivedFlight expected = recorded.get(0), actual = replayedRows.get(0);
+        assertEquals(1_000, expected.getRegisteredAt());
+        assertEquals(expected.getRegisteredAt(), actual.getRegisteredAt());
+        assertEquals(expected.getArrivedAt(), actual.getArrivedAt());
+        assertEquals(20_000, expected.getLandedAt());
+        assertEquals(expected.getLandedAt(), actual.getLandedAt());
+        assertEquals(30_000, expected.getBoardingAt());
+        assertEquals(expected.getBoardingAt(), actual.getBoardingAt());
+        assertEquals(expected.getDepartedAt(), actual.getDepartedAt());
+    }
+
+    /**
+     * Аргумент, который не удается разобрать, прерывает воспроизведение с номером строки,
+     * а не считается неизвестной командой
+     */
+    @Test
+    void reportsLineOfMalformedArgument() throws Exception {
+        AirportException e = replay("RUNWAYS\t1\nREGISTER\tF1\tМосква\nARRIVE\tF1\t1000\nLAND\tF1\tодин\n");
+        assertTrue(e.getMessage().contains("Строка 4"), e.getMessage());
+        assertTrue(e.getMessage().contains("один"), e.getMessage());
+
+        e = replay("RUNWAYS\t1\nREGISTER\tF1\tМосква\tGIANT\n");
+        assertTrue(e.getMessage().contains("Строка 2"), e.getMessage());
+
+        e = replay("RUNWAYS\t1\nTAKEOFF\n");
+        assertTrue(e.getMessage().contains("Строка 2"), e.getMessage());
+    }
+
+    /**
+     * Неизвестная команда прерывает воспроизведение с номером строки
+     */
+    @Test
+    void reportsUnknownCommand() throws Exception {
+        AirportException e = replay("RUNWAYS\t1\n\nFLY\tF1\n");
+        assertTrue(e.getMessage().contains("Строка 3"), e.getMessage());
+        assertTrue(e.getMessage().contains("FLY"), e.getMessage());
+    }
+
+    private AirportException replay(String text) throws Exception {
+        Path commands = Files.createTempFile(dir, "commands", ".log");
+        Files.write(commands, text.getBytes(StandardCharsets.UTF_8));
+        return assertThrows(AirportException.class, () -> new CommandReplay().replay(commands));
+    }
+}
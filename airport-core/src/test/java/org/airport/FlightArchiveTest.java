@@ -0,0 +1,103 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightArchiveTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Рейсы, не попавшие в сегмент до сбоя, восстанавливаются из журнала ровно один раз
+     */
+    @Test
+    void bufferedFlightsSurviveCrash() throws Exception {
+        String path = dir.toString();
+        FlightArchive crashed = new FlightArchive(path, 10);
+        for (int i = 0; i < 25; i++)
+            crashed.append(flight("F" + i, 1_000 + i));
+        //архив не закрыт: 20 рейсов в сегментах, 5 только в журнале
+
+        try (FlightArchive reopened = new FlightArchive(path, 10)) {
+            assertEquals(20, reopened.count(0, Long.MAX_VALUE));
+        }
+        try (FlightArchive closed = new FlightArchive(path, 10)) {
+            List<ArchivedFlight> rows = new ArrayList<>();
+            closed.scan(0, Long.MAX_VALUE, rows::add);
+            assertEquals(25, rows.size());
+            assertEquals("F24", rows.get(24).getFlightNumber());
+            assertEquals(1_024, rows.get(24).getDepartedAt());
+        }
+    }
+
+    /**
+     * Недописанная последняя запись журнала отбрасывается, а новые записи идут после целых
+     */
+    @Test
+    void tornJournalRecordIsDropped() throws Exception {
+        String path = dir.toString();
+        FlightArchive crashed = new FlightArchive(path, 10);
+        crashed.append(flight("F1", 1_000));
+        crashed.append(flight("F2", 2_000));
+        try (FileOutputStream journal = new FileOutputStream(dir.resolve("pending.jnl").toFile(), true)) {
+            journal.write(new byte[] {0, 0, 0, 40, 0, 2});
+        }
+
+        try (FlightArchive reopened = new FlightArchive(path, 10)) {
+            reopened.append(flight("F3", 3_000));
+        }
+        List<String> flights = new ArrayList<>();
+        new FlightArchive(path, 10).scan(0, Long.MAX_VALUE, row -> flights.add(row.getFlightNumber()));
+        assertEquals(List.of("F1", "F2", "F3"), flights);
+    }
+
+    /**
+     * Ошибка записи в архив отменяет взлет целиком, а повторный взлет архивирует рейс один раз
+     * со временем, переданным в команду
+     */
+    @Test
+    void failedArchiveLeavesTakeOffRetryable() throws Exception {
+        Airport airport = new Airport(1);
+        airport.registerFlight("F1", "Москва");
+        airport.registerFlight("F2", "Казань");
+        airport.arriveAtAirport("F1", 1_000);
+        airport.landAtAirport("F1", 1);
+        airport.readyForBoarding("F1", "Париж");
+        airport.arriveAtAirport("F2", 2_000);
+
+        FlightArchive broken = new FlightArchive(dir.resolve("broken").toString(), 10);
+        broken.close();
+        airport.setArchive(broken);
+        assertThrows(AirportException.class, () -> airport.takeOff("F1", 300_000));
+        AirportSnapshot snapshot = airport.snapshot();
+        assertEquals(PlaneStatus.DEPARTING, snapshot.getPlanes().get("F1").getStatus());
+        assertEquals(1, snapshot.getPlanes().get("F1").getRunwayNumber());
+        assertTrue(snapshot.isRunwayAllocated(1));
+        assertEquals(List.of("F2"), snapshot.getCirclingQ());
+
+        try (FlightArchive archive = new FlightArchive(dir.resolve("archive").toString(), 10)) {
+            airport.setArchive(archive);
+            assertEquals("F2", airport.takeOff("F1", 400_000).getFlightNumber());
+            archive.flush();
+            List<ArchivedFlight> rows = new ArrayList<>();
+            archive.scan(0, Long.MAX_VALUE, rows::add);
+            assertEquals(1, rows.size());
+            assertEquals(400_000, rows.get(0).getDepartedAt());
+            assertEquals(1, rows.get(0).getRunwayNumber());
+        }
+    }
+
+    private static ArchivedFlight flight(String number, long departedAt) {
+        return new ArchivedFlight(number, "Москва", "Париж", 1, departedAt - 400, departedAt - 300,
+                departedAt - 200, departedAt - 100, departedAt);
+    }
+}
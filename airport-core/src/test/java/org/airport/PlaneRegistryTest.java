@@ -0,0 +1,51 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PlaneRegistryTest {
+
+    /**
+     * Случайные добавления и удаления дают то же содержимое, что и HashMap
+     */
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(7);
+        PlaneRegistry registry = new PlaneRegistry();
+        Map<String, Plane> expected = new HashMap<>();
+        for (int step = 0; step < 100_000; step++) {
+            //небольшой набор номеров дает длинные цепочки и частые удаления из их середины
+            String flight = "F" + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(flight), registry.remove(flight), "шаг " + step);
+            }
+            else {
+                Plane plane = new Plane(flight, "X");
+                expected.put(flight, plane);
+                registry.put(plane);
+            }
+            assertEquals(expected.size(), registry.size());
+            String probe = "F" + random.nextInt(300);
+            assertSame(expected.get(probe), registry.get(probe), "шаг " + step);
+            assertEquals(expected.containsKey(probe), registry.containsKey(probe));
+        }
+        Set<Plane> iterated = new HashSet<>();
+        for (Plane plane : registry)
+            iterated.add(plane);
+        Set<Plane> indexed = new HashSet<>();
+        for (int slot = 0; slot < registry.capacity(); slot++) {
+            if (registry.at(slot) != null)
+                indexed.add(registry.at(slot));
+        }
+        assertEquals(new HashSet<>(expected.values()), iterated);
+        assertEquals(iterated, indexed);
+    }
+}
@@ -0,0 +1,112 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunwayCalendarTest {
+
+    /**
+     * Поиск свободного окна совпадает с последовательным просмотром броней
+     * при случайных бронированиях, отменах и истечениях
+     */
+    @Test
+    void nextFreeSlotMatchesLinearScan() {
+        Random random = new Random(3);
+        RunwayCalendar calendar = new RunwayCalendar();
+        List<String> flights = new ArrayList<>();
+        long expiredBefore = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 6) {
+                long start = expiredBefore + random.nextInt(50_000);
+                long end = start + 1 + random.nextInt(2_000);
+                if (calendar.isFree(start, end)) {
+                    String flight = "F" + step;
+                    calendar.reserve(new Reservation(flight, 1, start, end));
+                    flights.add(flight);
+                }
+            }
+            else if (action < 8 && !flights.isEmpty())
+                calendar.cancel(flights.remove(random.nextInt(flights.size())));
+            else if (action == 8) {
+                expiredBefore += random.nextInt(200);
+                for (Reservation expired : calendar.expire(expiredBefore))
+                    flights.remove(expired.getFlightNumber());
+            }
+            long from = expiredBefore + random.nextInt(55_000);
+            long duration = 1 + random.nextInt(3_000);
+            assertEquals(linearNextFreeSlot(calendar, from, duration), calendar.nextFreeSlot(from, duration),
+                    "шаг " + step);
+        }
+    }
+
+    /**
+     * На плотно заполненном календаре поиск не перебирает брони подряд: число просмотренных
+     * узлов дерева растет логарифмически, а не линейно с числом броней
+     */
+    @Test
+    void denseCalendarIsSearchedQuickly() {
+        RunwayCalendar calendar = new RunwayCalendar();
+        int count = 200_000;
+        for (int i = 0; i < count; i++)
+            calendar.reserve(new Reservation("F" + i, 1, i * 10L, i * 10L + 10));
+        calendar.cancel("F" + (count - 7));
+        long mostVisited = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals((count - 7) * 10L, calendar.nextFreeSlot(i, 10));
+            mostVisited = Math.max(mostVisited, calendar.getLastVisited());
+        }
+        assertEquals(count * 10L, calendar.nextFreeSlot(0, 11));
+        mostVisited = Math.max(mostVisited, calendar.getLastVisited());
+        //log2(200 000) ~ 18; последовательный просмотр прошел бы почти все 200 000 броней
+        assertTrue(mostVisited <= 8 * 18, "просмотрено узлов: " + mostVisited);
+    }
+
+    /**
+     * Календарь, прочитанный из файла, восстанавливает дерево промежутков
+     */
+    @Test
+    void gapsSurviveSerialization() throws Exception {
+        RunwayCalendar calendar = new RunwayCalendar();
+        calendar.reserve(new Reservation("A", 1, 0, 100));
+        calendar.reserve(new Reservation("B", 1, 100, 200));
+        calendar.reserve(new Reservation("C", 1, 250, 300));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(calendar);
+        }
+        RunwayCalendar loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (RunwayCalendar) in.readObject();
+        }
+        assertEquals(200, loaded.nextFreeSlot(0, 50));
+        assertEquals(300, loaded.nextFreeSlot(0, 51));
+        loaded.cancel("B");
+        assertEquals(100, loaded.nextFreeSlot(0, 150));
+    }
+
+    /**
+     * Поиск свободного окна последовательным просмотром броней
+     */
+    private static long linearNextFreeSlot(RunwayCalendar calendar, long from, long duration) {
+        long candidate = from;
+        for (Reservation reservation : calendar.getReservations()) {
+            if (reservation.getEnd() <= candidate)
+                continue;
+            if (reservation.getStart() - candidate >= duration)
+                break;
+            candidate = Math.max(candidate, reservation.getEnd());
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,80 @@
+package org.airport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunwaySequencerTest {
+
+    /**
+     * Тяжелый самолет впереди легких задерживает всю очередь, поэтому оптимизатор
+     * пропускает легкие вперед в пределах допустимого смещения
+     */
+    @Test
+    void movesLightPlanesAheadOfHeavy() {
+        RunwaySequencer sequencer = new RunwaySequencer(3, 10_000);
+        WakeCategory[] categories = {WakeCategory.HEAVY, WakeCategory.LIGHT, WakeCategory.LIGHT};
+        long[] queuedAt = {0, 0, 0};
+        WakeCategory[] leaders = {WakeCategory.LIGHT};
+        int[] order = sequencer.sequence(categories, queuedAt, leaders, 0);
+        long delay = sequencer.totalDelay(order, categories, queuedAt, leaders, 0);
+        assertTrue(delay < sequencer.totalDelay(new int[] {0, 1, 2}, categories, queuedAt, leaders, 0));
+    }
+
+    /**
+     * Порядок зависит только от входных данных и не выходит за предел смещения
+     */
+    @Test
+    void sequenceIsDeterministicAndRespectsMaxShift() {
+        Random random = new Random(1);
+        WakeCategory[] values = WakeCategory.values();
+        for (int trial = 0; trial < 50; trial++) {
+            int n = 2 + random.nextInt(60);
+            WakeCategory[] categories = new WakeCategory[n];
+            long[] queuedAt = new long[n];
+            for (int i = 0; i < n; i++) {
+                categories[i] = values[random.nextInt(values.length)];
+                queuedAt[i] = i * 1_000L;
+            }
+            WakeCategory[] leaders = {values[random.nextInt(values.length)], null};
+            int[] first = new RunwaySequencer(3, 500).sequence(categories, queuedAt, leaders, n * 1_000L);
+            int[] second = new RunwaySequencer(3, 500).sequence(categories, queuedAt, leaders, n * 1_000L);
+            assertArrayEquals(toLongs(first), toLongs(second));
+            for (int position = 0; position < n; position++)
+                assertTrue(Math.abs(first[position] - position) <= 3, Arrays.toString(first));
+        }
+    }
+
+    /**
+     * Объем локального поиска ограничен бюджетом посадок и не растет с длиной очереди,
+     * а результат большой очереди воспроизводится
+     */
+    @Test
+    void largeQueueWorkIsBounded() {
+        Random random = new Random(7);
+        WakeCategory[] values = WakeCategory.values();
+        WakeCategory[] leaders = {WakeCategory.HEAVY, null};
+        for (int n : new int[] {1_000, 4_000}) {
+            WakeCategory[] categories = new WakeCategory[n];
+            long[] queuedAt = new long[n];
+            for (int i = 0; i < n; i++) {
+                categories[i] = values[random.nextInt(values.length)];
+                queuedAt[i] = i * 1_000L;
+            }
+            RunwaySequencer sequencer = new RunwaySequencer(3, 200_000);
+            int[] first = sequencer.sequence(categories, queuedAt, leaders, n * 1_000L);
+            //одна оценка перестановки пересчитывает не больше n посадок сверх бюджета
+            assertTrue(sequencer.getLastPlacements() <= 200_000 + n, Long.toString(sequencer.getLastPlacements()));
+            int[] second = new RunwaySequencer(3, 200_000).sequence(categories, queuedAt, leaders, n * 1_000L);
+            assertArrayEquals(toLongs(first), toLongs(second));
+        }
+    }
+
+    private static long[] toLongs(int[] values) {
+        return Arrays.stream(values).asLongStream().toArray();
+    }
+}
@@ -1,9 +1,11 @@
-package org.airport;
+package org.airport.fx;
 
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -13,12 +15,21 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
-import java.util.Set;
+import org.airport.Airport;
+import org.airport.AirportException;
+import org.airport.BoardOrder;
+import org.airport.BoardProjection;
+import org.airport.BoardRow;
+import org.airport.CommandRecorder;
+
+import java.io.IOException;
 
 public class AirportFrame extends Application {
     private Airport airport;                        //Основной класс приложения
     private int numberOfRunways;                    //Число посадочных полос
     private final String FILENAME = "airport.dat";  //Файл для хранения текущего состояния
+    private final String RECORD_PROPERTY = "airport.record";    //Свойство с именем файла записи команд
+    private CommandRecorder recorder;               //Запись команд, null - не ведется
 
     private HBox arrivals = new HBox(50);        //Список прибытий
     private VBox arrivalsColumn1 = new VBox();      //Колонка "РЕЙС"
@@ -31,6 +42,9 @@ public class AirportFrame extends Application {
     private VBox departuresColumn2 = new VBox();    //Колонка "КУДА"
     private VBox departuresColumn3 = new VBox();    //Колонка "ПОЛОСА"
 
+    private BoardProjection arrivalsBoard;          //Выведенное табло прибытий
+    private BoardProjection departuresBoard;        //Выведенное табло отправлений
+
     /**
      * Метод инициализации приложения
      * @param primaryStage Начальный экран
@@ -65,6 +79,10 @@ public class AirportFrame extends Application {
             }
         }
 
+        String commandsFile = System.getProperty(RECORD_PROPERTY);
+        if (commandsFile != null && !commandsFile.isEmpty())
+            startRecording(commandsFile);
+
         VBox root = initGUI();
         primaryStage.setTitle("АЭРОПОРТ");
         primaryStage.setScene(new Scene(root, 640, 480));
@@ -73,6 +91,14 @@ public class AirportFrame extends Application {
     }
 
 
+    /**
+     * Завершение приложения: записанные команды сохраняются на диск
+     */
+    @Override
+    public void stop() {
+        stopRecording();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -95,7 +121,8 @@ public class AirportFrame extends Application {
         Menu saveAndContinueOption = new Menu("Сохранить и продолжить");
         Menu saveAndExitOption = new Menu("Сохранить и выйти");
         Menu exitWithoutSavingOption = new Menu("Выйти без сохранения");
-        item.getItems().addAll(saveAndContinueOption, saveAndExitOption, exitWithoutSavingOption);
+        Menu recordOption = new Menu("Записывать команды");
+        item.getItems().addAll(saveAndContinueOption, saveAndExitOption, exitWithoutSavingOption, recordOption);
         bar.getMenus().add(item);
         try {
             saveAndContinueOption.setOnAction(e -> save(FILENAME));
@@ -104,6 +131,7 @@ public class AirportFrame extends Application {
                 Platform.exit();
             });
             exitWithoutSavingOption.setOnAction(e -> exitWithoutSaving());
+            recordOption.setOnAction(e -> record());
         } catch (Exception e) {
             showError("Некорректная операция");
         }
@@ -289,48 +317,122 @@ public class AirportFrame extends Application {
      * Список прибытия
      */
     private void listArrivals() {
-        Set<Plane> arrivalsList = airport.getArrivals();
-        arrivalsColumn1.getChildren().clear();
-        arrivalsColumn2.getChildren().clear();
-        arrivalsColumn3.getChildren().clear();
-        arrivalsColumn4.getChildren().clear();
-        arrivalsColumn1.getChildren().add(new Text("РЕЙС"));
-        arrivalsColumn2.getChildren().add(new Text("ОТКУДА"));
-        arrivalsColumn3.getChildren().add(new Text("СТАТУС"));
-        arrivalsColumn4.getChildren().add(new Text("ПОЛОСА"));
-        for (Plane plane : arrivalsList) {
-            arrivalsColumn1.getChildren().add(new Text(plane.getFlightNumber()));
-            arrivalsColumn2.getChildren().add(new Text(plane.getCity()));
-            arrivalsColumn3.getChildren().add(new Text(plane.getStatusName()));
-            try {
-                arrivalsColumn4.getChildren().add(new Text(Integer.toString(plane.getRunwayNumber())));
-            } catch (Exception e) {
-                arrivalsColumn4.getChildren().add(new Text(""));
-            }
+        if (arrivalsBoard != null && arrivalsBoard.getVersion() == airport.getVersion())
+            return;     //табло не изменилось
+        arrivalsBoard = airport.getArrivalsBoard(BoardOrder.FLIGHT);
+        setCell(arrivalsColumn1, 0, "РЕЙС");
+        setCell(arrivalsColumn2, 0, "ОТКУДА");
+        setCell(arrivalsColumn3, 0, "СТАТУС");
+        setCell(arrivalsColumn4, 0, "ПОЛОСА");
+        int line = 1;
+        for (BoardRow row : arrivalsBoard.getRows()) {
+            setCell(arrivalsColumn1, line, row.getFlightNumber());
+            setCell(arrivalsColumn2, line, row.getCity());
+            setCell(arrivalsColumn3, line, row.getStatusName());
+            setCell(arrivalsColumn4, line, row.getRunwayText());
+            line++;
         }
+        trimColumn(arrivalsColumn1, line);
+        trimColumn(arrivalsColumn2, line);
+        trimColumn(arrivalsColumn3, line);
+        trimColumn(arrivalsColumn4, line);
     }
 
     /**
      * Список отправления
      */
     private void  listDepartures() {
-        Set<Plane> departuresList = airport.getDepartures();
-        departuresColumn1.getChildren().clear();
-        departuresColumn2.getChildren().clear();
-        departuresColumn3.getChildren().clear();
-        departuresColumn1.getChildren().add(new Text("РЕЙС"));
-        departuresColumn2.getChildren().add(new Text("КУДА"));
-        departuresColumn3.getChildren().add(new Text("ПОЛОСА"));
-
-        for (Plane plane : departuresList) {
-            departuresColumn1.getChildren().add(new Text(plane.getFlightNumber()));
-            departuresColumn2.getChildren().add(new Text(plane.getCity()));
-            try {
-                departuresColumn3.getChildren().add(new Text(Integer.toString(plane.getRunwayNumber())));
-            } catch (Exception e) {
-                departuresColumn3.getChildren().add(new Text(""));
+        if (departuresBoard != null && departuresBoard.getVersion() == airport.getVersion())
+            return;     //табло не изменилось
+        departuresBoard = airport.getDeparturesBoard(BoardOrder.FLIGHT);
+        setCell(departuresColumn1, 0, "РЕЙС");
+        setCell(departuresColumn2, 0, "КУДА");
+        setCell(departuresColumn3, 0, "ПОЛОСА");
+
+        int line = 1;
+        for (BoardRow row : departuresBoard.getRows()) {
+            setCell(departuresColumn1, line, row.getFlightNumber());
+            setCell(departuresColumn2, line, row.getCity());
+            setCell(departuresColumn3, line, row.getRunwayText());
+            line++;
+        }
+        trimColumn(departuresColumn1, line);
+        trimColumn(departuresColumn2, line);
+        trimColumn(departuresColumn3, line);
+    }
+
+    /**
+     * Вывод текста в ячейку колонки табло; уже созданные узлы Text используются повторно
+     * @param column Колонка табло
+     * @param line Номер строки, 0 - заголовок
+     * @param text Текст ячейки
+     */
+    private void setCell(VBox column, int line, String text) {
+        ObservableList<Node> cells = column.getChildren();
+        if (line < cells.size())
+            ((Text) cells.get(line)).setText(text);
+        else
+            cells.add(new Text(text));
+    }
+
+    /**
+     * Удаление лишних строк колонки табло
+     * @param column Колонка табло
+     * @param lines Число строк, которые нужно оставить
+     */
+    private void trimColumn(VBox column, int lines) {
+        ObservableList<Node> cells = column.getChildren();
+        if (cells.size() > lines)
+            cells.remove(lines, cells.size());
+    }
+
+    /**
+     * Запрос имени файла и начало записи команд
+     */
+    private void record() {
+        TextInputDialog dialog = new TextInputDialog("commands.log");
+        dialog.setHeaderText("Введите имя файла для записи команд");
+        dialog.setTitle("Запись команд");
+        String fileName = dialog.showAndWait().orElse("");
+        if (!fileName.equals(""))
+            startRecording(fileName);
+    }
+
+    /**
+     * Начало записи команд для воспроизведения через CommandReplay.
+     * Если аэропорт не пуст, его текущее состояние сохраняется рядом с файлом команд,
+     * чтобы при воспроизведении его можно было указать как начальное.
+     * @param fileName Имя файла команд
+     */
+    private void startRecording(String fileName) {
+        stopRecording();
+        try {
+            String message = "Команды записываются в файл " + fileName;
+            if (!airport.snapshot().getPlanes().isEmpty()) {
+                airport.save(fileName + ".initial");
+                message += ", начальное состояние - в файл " + fileName + ".initial";
             }
+            recorder = new CommandRecorder(fileName);
+            airport.setRecorder(recorder);
+            showInfo(message);
+        } catch (IOException e) {
+            showError("Ошибка при начале записи команд в файл " + fileName);
+        }
+    }
+
+    /**
+     * Окончание записи команд с сохранением записанного на диск
+     */
+    private void stopRecording() {
+        if (recorder == null)
+            return;
+        airport.setRecorder(null);
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            showError("Ошибка при записи файла команд");
         }
+        recorder = null;
     }
 
     /**